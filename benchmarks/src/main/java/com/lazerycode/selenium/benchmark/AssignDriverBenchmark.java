@@ -0,0 +1,53 @@
+package com.lazerycode.selenium.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.lazerycode.selenium.util.AssignDriver.initQueryObjects;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignDriverBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int components;
+
+    private StubDriver driver;
+    private LargePageObject pageObject;
+
+    @Setup
+    public void setUp() {
+        driver = StubDriver.chrome(0, 1);
+        pageObject = new LargePageObject(components);
+    }
+
+    @Benchmark
+    public LargePageObject initExistingPageObject() {
+        initQueryObjects(pageObject, driver);
+
+        return pageObject;
+    }
+
+    @Benchmark
+    public LargePageObject constructAndInitPageObject() {
+        LargePageObject newPageObject = new LargePageObject(components);
+        initQueryObjects(newPageObject, driver);
+
+        return newPageObject;
+    }
+}
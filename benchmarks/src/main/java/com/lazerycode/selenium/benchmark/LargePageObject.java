@@ -0,0 +1,40 @@
+package com.lazerycode.selenium.benchmark;
+
+import com.lazerycode.selenium.util.Query;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.BrowserType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page object with a realistic mix of Query fields, an inherited section and a list of nested components.
+ */
+public class LargePageObject extends PageHeader {
+
+    Query username = query("username");
+    Query password = query("password");
+    Query submit = query("submit");
+    Query forgottenPassword = query("forgotten-password");
+    Query rememberMe = query("remember-me");
+    Query[] socialLogins = {query("google"), query("github"), query("twitter")};
+    List<Row> rows = new ArrayList<>();
+    String title = "not a query";
+
+    public LargePageObject(int numberOfRows) {
+        for (int i = 0; i < numberOfRows; i++) {
+            rows.add(new Row());
+        }
+    }
+
+    static Query query(String id) {
+        return new Query().defaultLocator(By.id(id)).addSpecificLocator(BrowserType.SAFARI, By.name(id));
+    }
+
+    static class Row {
+        Query name = query("name");
+        Query price = query("price");
+        Query quantity = query("quantity");
+        Query remove = query("remove");
+    }
+}
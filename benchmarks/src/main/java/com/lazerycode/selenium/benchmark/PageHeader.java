@@ -0,0 +1,11 @@
+package com.lazerycode.selenium.benchmark;
+
+import com.lazerycode.selenium.util.Query;
+
+import static com.lazerycode.selenium.benchmark.LargePageObject.query;
+
+class PageHeader {
+    Query logo = query("logo");
+    Query search = query("search");
+    Query menu = query("menu");
+}
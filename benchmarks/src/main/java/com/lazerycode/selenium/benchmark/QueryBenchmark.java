@@ -0,0 +1,89 @@
+package com.lazerycode.selenium.benchmark;
+
+import com.lazerycode.selenium.util.Query;
+import io.appium.java_client.MobileElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.BrowserType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int elementsPerFind;
+
+    private StubDriver chromeDriver;
+    private StubDriver androidDriver;
+    private Query query;
+    private Query equalQuery;
+    private Query mobileQuery;
+
+    @Setup
+    public void setUp() {
+        chromeDriver = StubDriver.chrome(0, elementsPerFind);
+        androidDriver = StubDriver.android(0, elementsPerFind);
+        query = newQuery().usingDriver(chromeDriver);
+        equalQuery = newQuery().usingDriver(chromeDriver);
+        mobileQuery = newQuery().usingDriver(androidDriver);
+    }
+
+    private static Query newQuery() {
+        return new Query().defaultLocator(By.id("default"))
+                .addSpecificLocator(BrowserType.CHROME, By.id("chrome"))
+                .addSpecificLocator(BrowserType.FIREFOX, By.id("firefox"));
+    }
+
+    @Benchmark
+    public By by() {
+        return query.by();
+    }
+
+    @Benchmark
+    public Query usingDriver() {
+        return query.usingDriver(chromeDriver);
+    }
+
+    @Benchmark
+    public void equalsAndHashCode(Blackhole blackhole) {
+        blackhole.consume(query.equals(equalQuery));
+        blackhole.consume(query.hashCode());
+    }
+
+    @Benchmark
+    public WebElement find() {
+        return query.find();
+    }
+
+    @Benchmark
+    public List<WebElement> findAll() {
+        return query.findAll();
+    }
+
+    @Benchmark
+    public void findMobileElements(Blackhole blackhole) {
+        List<MobileElement> elements = mobileQuery.findMobileElements();
+        for (MobileElement element : elements) {
+            blackhole.consume(element);
+        }
+    }
+}
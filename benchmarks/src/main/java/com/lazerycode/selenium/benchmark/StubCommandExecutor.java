@@ -0,0 +1,98 @@
+package com.lazerycode.selenium.benchmark;
+
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An in-process CommandExecutor that answers driver commands without a browser.
+ * <p>
+ * Every findElement(s) call succeeds, returning freshly numbered elements after an optional simulated network latency,
+ * so benchmarks can run offline.
+ */
+public class StubCommandExecutor implements CommandExecutor {
+
+    private static final String GET_SESSION = "getSession";
+    private static final String W3C_ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+
+    private final SessionId sessionId = new SessionId(UUID.randomUUID().toString());
+    private final AtomicLong nextElementId = new AtomicLong();
+    private final AtomicLong commandsExecuted = new AtomicLong();
+    private final Map<String, Object> capabilities;
+    private final long latencyNanos;
+    private final int elementsPerFind;
+
+    /**
+     * @param capabilities    The capabilities reported by the stub session
+     * @param latency         Simulated latency added to every command
+     * @param latencyUnit     Unit of the simulated latency
+     * @param elementsPerFind The number of elements returned by findElements
+     */
+    public StubCommandExecutor(Map<String, Object> capabilities, long latency, TimeUnit latencyUnit, int elementsPerFind) {
+        this.capabilities = new HashMap<>(capabilities);
+        this.latencyNanos = latencyUnit.toNanos(latency);
+        this.elementsPerFind = elementsPerFind;
+    }
+
+    @Override
+    public Response execute(Command command) {
+        commandsExecuted.incrementAndGet();
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        Response response = new Response(sessionId);
+        response.setStatus(ErrorCodes.SUCCESS);
+        response.setState("success");
+        switch (command.getName()) {
+            case DriverCommand.NEW_SESSION:
+            case DriverCommand.GET_CAPABILITIES:
+            case GET_SESSION:
+                response.setValue(capabilities);
+                break;
+            case DriverCommand.FIND_ELEMENT:
+            case DriverCommand.FIND_CHILD_ELEMENT:
+                response.setValue(newElement());
+                break;
+            case DriverCommand.FIND_ELEMENTS:
+            case DriverCommand.FIND_CHILD_ELEMENTS:
+                List<Map<String, Object>> elements = new ArrayList<>(elementsPerFind);
+                for (int i = 0; i < elementsPerFind; i++) {
+                    elements.add(newElement());
+                }
+                response.setValue(elements);
+                break;
+            default:
+                response.setValue(null);
+        }
+
+        return response;
+    }
+
+    /**
+     * @return The number of commands this executor has answered
+     */
+    public long getCommandsExecuted() {
+        return commandsExecuted.get();
+    }
+
+    private Map<String, Object> newElement() {
+        String id = Long.toString(nextElementId.incrementAndGet());
+        Map<String, Object> element = new HashMap<>();
+        element.put("ELEMENT", id);
+        element.put(W3C_ELEMENT_KEY, id);
+
+        return element;
+    }
+}
@@ -0,0 +1,66 @@
+package com.lazerycode.selenium.benchmark;
+
+import io.appium.java_client.HasSessionDetails;
+import io.appium.java_client.internal.JsonToMobileElementConverter;
+import io.appium.java_client.remote.MobilePlatform;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.openqa.selenium.remote.CapabilityType.BROWSER_NAME;
+import static org.openqa.selenium.remote.CapabilityType.PLATFORM_NAME;
+
+/**
+ * A RemoteWebDriver backed by a StubCommandExecutor.
+ */
+public class StubDriver extends RemoteWebDriver implements HasSessionDetails {
+
+    private StubDriver(StubCommandExecutor executor, boolean mobile) {
+        super(executor, new ImmutableCapabilities());
+        if (mobile) {
+            setElementConverter(new JsonToMobileElementConverter(this, this));
+        }
+    }
+
+    /**
+     * @param latencyMillis   Simulated latency added to every command
+     * @param elementsPerFind The number of elements returned by findElements
+     * @return A stub driver that reports itself as desktop Chrome
+     */
+    public static StubDriver chrome(long latencyMillis, int elementsPerFind) {
+        Map<String, Object> capabilities = new HashMap<>();
+        capabilities.put(BROWSER_NAME, BrowserType.CHROME);
+        capabilities.put(PLATFORM_NAME, "LINUX");
+
+        return new StubDriver(new StubCommandExecutor(capabilities, latencyMillis, TimeUnit.MILLISECONDS, elementsPerFind), false);
+    }
+
+    /**
+     * @param latencyMillis   Simulated latency added to every command
+     * @param elementsPerFind The number of elements returned by findElements
+     * @return A stub driver that reports itself as a native Appium Android session
+     */
+    public static StubDriver android(long latencyMillis, int elementsPerFind) {
+        Map<String, Object> capabilities = new HashMap<>();
+        capabilities.put(BROWSER_NAME, "");
+        capabilities.put(PLATFORM_NAME, MobilePlatform.ANDROID);
+        capabilities.put("automationName", "Appium");
+
+        return new StubDriver(new StubCommandExecutor(capabilities, latencyMillis, TimeUnit.MILLISECONDS, elementsPerFind), true);
+    }
+
+    @Override
+    public Response execute(String driverCommand, Map<String, ?> parameters) {
+        return super.execute(driverCommand, parameters);
+    }
+
+    @Override
+    public Response execute(String command) {
+        return super.execute(command);
+    }
+}
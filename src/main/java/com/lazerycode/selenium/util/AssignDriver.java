@@ -2,23 +2,63 @@ package com.lazerycode.selenium.util;
 
 import org.openqa.selenium.remote.RemoteWebDriver;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 public class AssignDriver {
+
+    private static final ThreadLocal<Set<Object>> BINDING = ThreadLocal.withInitial(() -> Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    /**
+     * Assign the supplied driver to every Query object held by the supplied page object.
+     * <p>
+     * Fields declared in superclasses, Query subclasses, arrays and collections of Query objects and nested page object
+     * components are all covered.  The fields of each class are only scanned once, the result is cached.  If
+     * QueryLocatorProcessor generated a binder for the page object (see QueryLocator) it is used instead, so no fields
+     * are scanned at all.
+     *
+     * @param object The page object to scan
+     * @param driver A RemoteWebdriverObject or something that extends RemoteWebDriver
+     */
     public static void initQueryObjects(Object object, RemoteWebDriver driver) {
-        Class<?> clazz = object.getClass();
-        for (Field field : clazz.getDeclaredFields()) {
-            if (field.getType() == Query.class) {
-                field.setAccessible(true);
-                try {
-                    Query queryObject = (Query) field.get(object);
-                    if (null != queryObject) {
-                        queryObject.usingDriver(driver);
-                    }
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
+        Set<Object> binding = BINDING.get();
+        if (!binding.add(object)) {
+            return;
+        }
+        try {
+            QueryBinders.bind(object, driver);
+        } finally {
+            binding.remove(object);
+        }
+    }
+
+    /**
+     * Assign the supplied driver to every Query object held by the supplied page object, see initQueryObjects(Object, RemoteWebDriver).
+     * <p>
+     * If prefetchElements is true the elements for every Query are also looked up in the background straight away, using a
+     * single script call (see QueryBatch), so that the round trip happens while the test is still setting up.  The next
+     * findWebElement() call on each Query returns the prefetched element without waiting for the driver; if it has gone
+     * stale by the time it is used it is located again.  Query objects that cannot be located by a script (and scoped
+     * Query objects) are looked up normally, as are Query objects whose element was not on the page yet.
+     *
+     * @param object           The page object to scan
+     * @param driver           A RemoteWebdriverObject or something that extends RemoteWebDriver
+     * @param prefetchElements true to look up every element in the background
+     */
+    public static void initQueryObjects(Object object, RemoteWebDriver driver, boolean prefetchElements) {
+        initQueryObjects(object, driver);
+        if (prefetchElements) {
+            Set<Query> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Query> queries = new ArrayList<>();
+            PageObjectFields.visit(object, false, (path, query) -> {
+                if (visited.add(query)) {
+                    queries.add(query);
                 }
-            }
+            });
+            QueryBatch.prefetch(queries);
         }
     }
 }
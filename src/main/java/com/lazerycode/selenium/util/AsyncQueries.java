@@ -0,0 +1,277 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs Query lookups asynchronously.
+ * <p>
+ * Driver sessions are not thread safe, so asynchronous lookups against the same driver are queued and run one at a
+ * time, in the order they were submitted.  Lookups against different drivers run in parallel.  A synchronous Query
+ * call waits for the lookups already queued against its driver before it uses the driver, so a thread can queue
+ * lookups and carry on using the same driver without the two overlapping (see DriverSession.awaitPrefetch() before
+ * using the driver directly).  Using one driver from several threads of your own is no more supported than it is by
+ * WebDriver itself.
+ * <p>
+ * If the executor rejects a lookup, that lookup and every lookup queued behind it for the same driver fail with the
+ * RejectedExecutionException, and the next lookup submitted tries the executor again.
+ * <p>
+ * By default lookups run on virtual threads if the JVM supports them (Java 21+), otherwise on a cached pool of daemon
+ * threads.  Use setExecutor to supply your own.
+ * <p>
+ * Example:
+ * <p>
+ * List&lt;WebElement&gt; elements = AsyncQueries.findEach(username, password, submit).join();
+ */
+public class AsyncQueries {
+
+    private static final ThreadLocal<Boolean> RUNNING_SESSION_TASK = new ThreadLocal<>();
+    private static final Map<RemoteWebDriver, SessionExecutor> SESSION_EXECUTORS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static volatile Executor executor = defaultExecutor();
+
+    private AsyncQueries() {
+    }
+
+    /**
+     * @param asyncExecutor The executor that asynchronous lookups will run on
+     */
+    public static void setExecutor(Executor asyncExecutor) {
+        if (null == asyncExecutor) {
+            throw new NullPointerException("Executor is null!");
+        }
+        executor = asyncExecutor;
+    }
+
+    /**
+     * @return The executor that asynchronous lookups run on
+     */
+    public static Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Find the element for every supplied Query in parallel (lookups for the same driver still run one at a time).
+     *
+     * @param queries The Query objects to look up
+     * @return A future that completes with one WebElement per Query, in the order supplied
+     */
+    public static CompletableFuture<List<WebElement>> findEach(Query... queries) {
+        List<CompletableFuture<WebElement>> futures = new ArrayList<>();
+        for (Query query : queries) {
+            futures.add(query.findAsync());
+        }
+
+        return joinAll(futures);
+    }
+
+    /**
+     * Find all of the elements for every supplied Query in parallel (lookups for the same driver still run one at a time).
+     *
+     * @param queries The Query objects to look up
+     * @return A future that completes with one List of WebElements per Query, in the order supplied
+     */
+    public static CompletableFuture<List<List<WebElement>>> findAllOfEach(Query... queries) {
+        List<CompletableFuture<List<WebElement>>> futures = new ArrayList<>();
+        for (Query query : queries) {
+            futures.add(query.findAllAsync());
+        }
+
+        return joinAll(futures);
+    }
+
+    /**
+     * @param futures The futures to wait for
+     * @param <T>     The type of result
+     * @return A future that completes with every result, in the order supplied, or exceptionally if any future fails
+     */
+    public static <T> CompletableFuture<List<T>> joinAll(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<T> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Run a lookup for the supplied Query after any other asynchronous lookups queued against the same driver.
+     */
+    static <T> CompletableFuture<T> submit(Query query, Supplier<T> lookup) {
+        RemoteWebDriver driver;
+        try {
+            query.by();
+            driver = query.boundDriver();
+        } catch (RuntimeException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        return supplyInSession(driver, lookup);
+    }
+
+    /**
+     * Run a lookup after any other asynchronous lookups queued against the supplied driver.
+     */
+    static <T> CompletableFuture<T> supplyInSession(RemoteWebDriver driver, Supplier<T> lookup) {
+        return SESSION_EXECUTORS.computeIfAbsent(driver, key -> new SessionExecutor()).supply(lookup);
+    }
+
+    /**
+     * Wait for every asynchronous lookup queued against the supplied driver so far.  Returns straight away when called
+     * from one of those lookups.
+     */
+    static void awaitSessionTasks(RemoteWebDriver driver) {
+        if (isRunningSessionTask()) {
+            return;
+        }
+        SessionExecutor sessionExecutor = SESSION_EXECUTORS.get(driver);
+        if (null != sessionExecutor) {
+            sessionExecutor.awaitQueued();
+        }
+    }
+
+    /**
+     * @return true if the current thread is running a task queued on a session executor
+     */
+    static boolean isRunningSessionTask() {
+        return Boolean.TRUE.equals(RUNNING_SESSION_TASK.get());
+    }
+
+    private static Executor defaultExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ExecutorService pool = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "query-async-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            return pool;
+        }
+    }
+
+    /**
+     * Runs tasks one at a time, in submission order, on the shared executor.
+     * <p>
+     * A task counts as finished (and the next one is started) before its future is completed, so code chained onto the
+     * future can use the driver without waiting for itself.
+     */
+    private static class SessionExecutor {
+
+        private final Queue<Task<?>> tasks = new ArrayDeque<>();
+        private boolean running;
+        private long submitted;
+        private long finished;
+
+        <T> CompletableFuture<T> supply(Supplier<T> lookup) {
+            Task<T> task = new Task<>(lookup);
+            Runnable rejection = null;
+            synchronized (this) {
+                tasks.add(task);
+                submitted++;
+                if (!running) {
+                    rejection = scheduleNext();
+                }
+            }
+            if (null != rejection) {
+                rejection.run();
+            }
+            return task.result;
+        }
+
+        synchronized void awaitQueued() {
+            long target = submitted;
+            boolean interrupted = false;
+            while (finished < target) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Start the next task, must be called holding the lock.
+         *
+         * @return null, or something to run once the lock has been released that fails every task the executor rejected
+         */
+        private Runnable scheduleNext() {
+            Task<?> next = tasks.poll();
+            running = null != next;
+            if (!running) {
+                notifyAll();
+                return null;
+            }
+            try {
+                executor.execute(() -> run(next));
+                return null;
+            } catch (RuntimeException e) {
+                running = false;
+                List<Task<?>> rejected = new ArrayList<>(tasks.size() + 1);
+                rejected.add(next);
+                rejected.addAll(tasks);
+                tasks.clear();
+                finished += rejected.size();
+                notifyAll();
+                return () -> rejected.forEach(task -> task.result.completeExceptionally(e));
+            }
+        }
+
+        private <T> void run(Task<T> task) {
+            T value = null;
+            Throwable failure = null;
+            RUNNING_SESSION_TASK.set(Boolean.TRUE);
+            try {
+                value = task.lookup.get();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                RUNNING_SESSION_TASK.remove();
+            }
+            Runnable rejection;
+            synchronized (this) {
+                finished++;
+                rejection = scheduleNext();
+            }
+            if (null != rejection) {
+                rejection.run();
+            }
+            if (null == failure) {
+                task.result.complete(value);
+            } else {
+                task.result.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private static class Task<T> {
+
+        private final Supplier<T> lookup;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Task(Supplier<T> lookup) {
+            this.lookup = lookup;
+        }
+    }
+}
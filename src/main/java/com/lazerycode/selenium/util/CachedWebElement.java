@@ -0,0 +1,172 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A WebElement handed out by a Query that has element caching enabled.
+ * <p>
+ * Every call is passed straight through to the element that was originally found. If that element has gone stale the
+ * owning Query is asked to locate it again and the call is retried once.
+ */
+class CachedWebElement implements WebElement, WrapsElement, Locatable {
+
+    private final Query query;
+    private WebElement element;
+
+    CachedWebElement(Query query, WebElement element) {
+        this.query = query;
+        this.element = element;
+    }
+
+    private <T> T retryIfStale(Function<WebElement, T> action) {
+        try {
+            return action.apply(element);
+        } catch (StaleElementReferenceException ignored) {
+            element = query.relocateCachedElement();
+            return action.apply(element);
+        }
+    }
+
+    @Override
+    public WebElement getWrappedElement() {
+        return element;
+    }
+
+    @Override
+    public void click() {
+        retryIfStale(element -> {
+            element.click();
+            return null;
+        });
+    }
+
+    @Override
+    public void submit() {
+        retryIfStale(element -> {
+            element.submit();
+            return null;
+        });
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        retryIfStale(element -> {
+            element.sendKeys(keysToSend);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        retryIfStale(element -> {
+            element.clear();
+            return null;
+        });
+    }
+
+    @Override
+    public String getTagName() {
+        return retryIfStale(WebElement::getTagName);
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return retryIfStale(element -> element.getAttribute(name));
+    }
+
+    @Override
+    public boolean isSelected() {
+        return retryIfStale(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return retryIfStale(WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return retryIfStale(WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return retryIfStale(element -> element.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return retryIfStale(element -> element.findElement(by));
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return retryIfStale(WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return retryIfStale(WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return retryIfStale(WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return retryIfStale(WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return retryIfStale(element -> element.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return retryIfStale(element -> element.getScreenshotAs(target));
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+        return retryIfStale(element -> {
+            if (element instanceof Locatable) {
+                return ((Locatable) element).getCoordinates();
+            }
+            throw new UnsupportedOperationException("The cached element does not expose its coordinates!");
+        });
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof WrapsElement) {
+            return element.equals(((WrapsElement) o).getWrappedElement());
+        }
+        return element.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return element.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return element.toString();
+    }
+}
@@ -0,0 +1,214 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static org.openqa.selenium.remote.CapabilityType.PLATFORM_NAME;
+
+/**
+ * A combination of capabilities that a driver must have for a specific locator to be used.
+ * <p>
+ * Every capability you specify has to match, anything you don't specify is ignored.  When more than one rule matches
+ * the current driver the most specific rule (the one that checks the most capabilities) wins.
+ * <p>
+ * Example:
+ * <p>
+ * CapabilityRule rule = new CapabilityRule().browser(BrowserType.CHROME).versionBetween("70", "79").platform("ANDROID");
+ * query.addSpecificLocator(rule, By.id("bar"));
+ * <p>
+ * All comparisons are case insensitive.  Rules are immutable, every method returns a new rule, so a rule can be shared
+ * and used as a map key safely.
+ */
+public final class CapabilityRule {
+
+    private final Map<String, String> capabilities;
+    private final String browser;
+    private final String platform;
+    private final String minimumVersion;
+    private final String maximumVersion;
+
+    /**
+     * Create a rule that matches every driver, use the methods below to narrow it down.
+     */
+    public CapabilityRule() {
+        this(Collections.<String, String>emptyMap(), null, null, null, null);
+    }
+
+    private CapabilityRule(Map<String, String> capabilities, String browser, String platform, String minimumVersion, String maximumVersion) {
+        this.capabilities = capabilities;
+        this.browser = browser;
+        this.platform = platform;
+        this.minimumVersion = minimumVersion;
+        this.maximumVersion = maximumVersion;
+    }
+
+    /**
+     * @param browserName The browserName capability to match
+     * @return A copy of this rule that also matches the supplied browser
+     */
+    public CapabilityRule browser(String browserName) {
+        return new CapabilityRule(capabilities, browserName, platform, minimumVersion, maximumVersion);
+    }
+
+    /**
+     * Match a platform, platform families are honoured so "MAC" will match a driver that reports "YOSEMITE".
+     *
+     * @param platformName The PLATFORM_NAME capability to match
+     * @return A copy of this rule that also matches the supplied platform
+     */
+    public CapabilityRule platform(String platformName) {
+        return new CapabilityRule(capabilities, browser, platformName, minimumVersion, maximumVersion);
+    }
+
+    /**
+     * Match an inclusive range of browser versions.
+     * Versions are compared numerically, and only as far as the bound goes; so a maximum of "79" includes "79.0.3945.88".
+     *
+     * @param minimum The lowest matching version, or null for no lower bound
+     * @param maximum The highest matching version, or null for no upper bound
+     * @return A copy of this rule that also matches the supplied range of versions
+     */
+    public CapabilityRule versionBetween(String minimum, String maximum) {
+        return new CapabilityRule(capabilities, browser, platform, minimum, maximum);
+    }
+
+    /**
+     * @param automationName The automationName capability to match (e.g. UiAutomator2, XCUITest)
+     * @return A copy of this rule that also matches the supplied automationName
+     */
+    public CapabilityRule automationName(String automationName) {
+        return capability("automationName", automationName);
+    }
+
+    /**
+     * @param deviceName The deviceName capability to match
+     * @return A copy of this rule that also matches the supplied deviceName
+     */
+    public CapabilityRule deviceName(String deviceName) {
+        return capability("deviceName", deviceName);
+    }
+
+    /**
+     * Match any other capability by name.
+     *
+     * @param name  The capability name
+     * @param value The value the capability must have
+     * @return A copy of this rule that also matches the supplied capability
+     */
+    public CapabilityRule capability(String name, String value) {
+        Map<String, String> combined = new TreeMap<>(capabilities);
+        combined.put(name, value);
+
+        return new CapabilityRule(Collections.unmodifiableMap(combined), browser, platform, minimumVersion, maximumVersion);
+    }
+
+    /**
+     * @return The number of capabilities this rule checks, used to decide which rule wins when more than one matches
+     */
+    int specificity() {
+        return capabilities.size() + (null != browser ? 1 : 0) + (null != platform ? 1 : 0) + (null != minimumVersion || null != maximumVersion ? 1 : 0);
+    }
+
+    boolean matches(Capabilities driverCapabilities) {
+        if (null != browser && !browser.equalsIgnoreCase(driverCapabilities.getBrowserName())) {
+            return false;
+        }
+        for (Map.Entry<String, String> expected : capabilities.entrySet()) {
+            Object actual = driverCapabilities.getCapability(expected.getKey());
+            if (null == actual || !actual.toString().equalsIgnoreCase(expected.getValue())) {
+                return false;
+            }
+        }
+        return platformMatches(driverCapabilities.getCapability(PLATFORM_NAME)) && versionMatches(browserVersionOf(driverCapabilities));
+    }
+
+    private boolean platformMatches(Object actual) {
+        if (null == platform) {
+            return true;
+        }
+        if (null == actual) {
+            return false;
+        }
+        if (actual.toString().equalsIgnoreCase(platform)) {
+            return true;
+        }
+        try {
+            Platform actualPlatform = actual instanceof Platform ? (Platform) actual : Platform.fromString(actual.toString());
+            return actualPlatform.is(Platform.fromString(platform.toUpperCase()));
+        } catch (WebDriverException | IllegalArgumentException ignored) {
+            return false;
+        }
+    }
+
+    private boolean versionMatches(String actual) {
+        if (null == minimumVersion && null == maximumVersion) {
+            return true;
+        }
+        if (null == actual || actual.isEmpty()) {
+            return false;
+        }
+        return (null == minimumVersion || compareVersions(actual, minimumVersion) >= 0) &&
+                (null == maximumVersion || compareVersions(actual, maximumVersion) <= 0);
+    }
+
+    private static String browserVersionOf(Capabilities driverCapabilities) {
+        Object version = driverCapabilities.getCapability("browserVersion");
+        if (null == version) {
+            version = driverCapabilities.getCapability("version");
+        }
+        return null == version ? null : version.toString();
+    }
+
+    /**
+     * Compare an actual version against a bound, only looking at as many segments as the bound has.
+     */
+    static int compareVersions(String actual, String bound) {
+        String[] actualSegments = actual.split("\\.");
+        String[] boundSegments = bound.split("\\.");
+        for (int i = 0; i < boundSegments.length; i++) {
+            long actualSegment = i < actualSegments.length ? numberIn(actualSegments[i]) : 0;
+            int comparison = Long.compare(actualSegment, numberIn(boundSegments[i]));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    private static long numberIn(String segment) {
+        int end = 0;
+        while (end < segment.length() && end < 18 && Character.isDigit(segment.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? 0 : Long.parseLong(segment.substring(0, end));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CapabilityRule that = (CapabilityRule) o;
+        return Objects.equals(capabilities, that.capabilities) &&
+                Objects.equals(browser, that.browser) &&
+                Objects.equals(platform, that.platform) &&
+                Objects.equals(minimumVersion, that.minimumVersion) &&
+                Objects.equals(maximumVersion, that.maximumVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(capabilities, browser, platform, minimumVersion, maximumVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "CapabilityRule" + capabilities + (null != browser ? " browser=" + browser : "") + (null != platform ? " platform=" + platform : "") +
+                (null != minimumVersion || null != maximumVersion ? " version=[" + minimumVersion + ", " + maximumVersion + "]" : "");
+    }
+}
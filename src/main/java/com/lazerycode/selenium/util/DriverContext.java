@@ -0,0 +1,113 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Binds QueryDefinition objects to a driver session.
+ * <p>
+ * A context keeps one Query per definition for its driver, created the first time it is needed.  Contexts are meant to
+ * be used by one test thread at a time (like the driver itself); the definitions are what is shared.  A context can be
+ * used explicitly, bound to the current thread with bindToCurrentThread(), or created from a driver supplier.
+ * <p>
+ * Swapping drivers is O(1): bind a different context to the thread, or let the supplier return a different driver, and
+ * every definition resolves against the new driver the next time it is used.
+ */
+public final class DriverContext {
+
+    private static final ThreadLocal<DriverContext> CURRENT = new ThreadLocal<>();
+
+    private final Supplier<RemoteWebDriver> driverSupplier;
+    private final Map<QueryDefinition, Query> queries = new ConcurrentHashMap<>();
+    private volatile RemoteWebDriver boundDriver;
+
+    private DriverContext(Supplier<RemoteWebDriver> driverSupplier) {
+        this.driverSupplier = driverSupplier;
+    }
+
+    /**
+     * @param driver A RemoteWebdriverObject or something that extends RemoteWebDriver
+     * @return A DriverContext for the supplied driver
+     */
+    public static DriverContext of(RemoteWebDriver driver) {
+        if (null == driver) {
+            throw new NullPointerException("Driver object is null!");
+        }
+
+        return new DriverContext(() -> driver);
+    }
+
+    /**
+     * The supplier is called every time a Query is requested, if it returns a different driver every Query is rebound.
+     *
+     * @param driverSupplier Supplies the driver to use, e.g. a ThreadLocal driver held by your test framework
+     * @return A DriverContext that uses whatever driver the supplier returns
+     */
+    public static DriverContext supplier(Supplier<RemoteWebDriver> driverSupplier) {
+        if (null == driverSupplier) {
+            throw new NullPointerException("Driver supplier is null!");
+        }
+
+        return new DriverContext(driverSupplier);
+    }
+
+    /**
+     * @param context The DriverContext used by QueryDefinition.current() on this thread
+     */
+    public static void bindToCurrentThread(DriverContext context) {
+        CURRENT.set(context);
+    }
+
+    /**
+     * Remove the DriverContext bound to this thread, call this when a test finishes.
+     */
+    public static void clearCurrentThread() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return The DriverContext bound to the current thread
+     * @throws IllegalStateException if no DriverContext is bound to the current thread
+     */
+    public static DriverContext current() {
+        DriverContext context = CURRENT.get();
+        if (null == context) {
+            throw new IllegalStateException("No DriverContext has been bound to this thread... You must call 'DriverContext.bindToCurrentThread(context);'!");
+        }
+
+        return context;
+    }
+
+    /**
+     * @return The driver this context currently uses
+     */
+    public RemoteWebDriver getDriver() {
+        RemoteWebDriver driver = driverSupplier.get();
+        if (null == driver) {
+            throw new IllegalStateException("Driver supplier returned null!");
+        }
+
+        return driver;
+    }
+
+    /**
+     * @param definition The QueryDefinition to bind
+     * @return The Query for the supplied definition bound to this context's driver
+     */
+    public Query query(QueryDefinition definition) {
+        RemoteWebDriver driver = getDriver();
+        if (driver != boundDriver) {
+            queries.clear();
+            boundDriver = driver;
+        }
+        Query query = queries.get(definition);
+        if (null == query) {
+            query = queries.computeIfAbsent(definition, key -> key.newQuery().usingDriver(driver));
+        }
+
+        return query;
+    }
+}
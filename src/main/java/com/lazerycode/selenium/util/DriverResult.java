@@ -0,0 +1,85 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * The outcome of running a Query against one of the drivers supplied to Query.usingDrivers().
+ *
+ * @param <T> The type of result, e.g. WebElement or List&lt;WebElement&gt;
+ */
+public class DriverResult<T> {
+
+    private final RemoteWebDriver driver;
+    private final By locator;
+    private final T result;
+    private final Throwable failure;
+    private final long durationNanos;
+
+    DriverResult(RemoteWebDriver driver, By locator, T result, Throwable failure, long durationNanos) {
+        this.driver = driver;
+        this.locator = locator;
+        this.result = result;
+        this.failure = failure;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return The driver this result came from
+     */
+    public RemoteWebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * @return The locator that was picked for this driver, or null if no locator could be picked
+     */
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * @return true if the lookup worked
+     */
+    public boolean isSuccess() {
+        return null == failure;
+    }
+
+    /**
+     * This will return the result of the lookup, or rethrow the failure if the lookup did not work.
+     *
+     * @return T
+     */
+    public T get() {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (null != failure) {
+            throw new RuntimeException(failure);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return The exception thrown by the lookup, or null if it worked
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return How long the lookup took once it started running against the driver, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DriverResult{driver=%s, locator=%s, success=%s, durationNanos=%d}", driver, locator, isSuccess(), durationNanos);
+    }
+}
@@ -0,0 +1,251 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * The lifecycle of a driver session, shared by every Query bound to that driver.
+ * <p>
+ * Query objects reach their driver through its DriverSession rather than holding the driver themselves.  Ending a
+ * session (see end() and quit()) drops the reference to the driver in one step, so page objects that outlive the
+ * session (e.g. in a static cache) no longer keep the dead driver alive, however many Query objects they hold.  A
+ * session also ends when it is noticed that the driver has been quit directly: the next time a Query uses it, or when a
+ * session is started for another driver or leakedQueries() is called (checking a session id is not a round trip to the
+ * driver).  Using a Query bound to an ended session throws an IllegalStateException, and the elements it has cached
+ * are thrown away when the session ends.
+ * <p>
+ * The registry only holds drivers and Query objects through weak references, so it never keeps anything alive
+ * itself.  Use leakedQueries() to find Query objects that are still bound to sessions that have ended.
+ */
+public final class DriverSession {
+
+    private static final Map<RemoteWebDriver, WeakReference<DriverSession>> SESSIONS = new WeakHashMap<>();
+    private static final List<WeakReference<DriverSession>> ENDED = new ArrayList<>();
+
+    private final List<WeakReference<Query>> queries = new ArrayList<>();
+    private int purgeThreshold = 16;
+    private final boolean remoteSession;
+    private volatile RemoteWebDriver driver;
+    private volatile String description;
+
+    private DriverSession(RemoteWebDriver driver) {
+        this.driver = driver;
+        this.remoteSession = null != driver.getSessionId();
+    }
+
+    /**
+     * @param driver A RemoteWebdriverObject or something that extends RemoteWebDriver
+     * @return The session for the supplied driver, a new session is started if it does not have one
+     */
+    public static DriverSession of(RemoteWebDriver driver) {
+        if (null == driver) {
+            throw new NullPointerException("Driver object is null!");
+        }
+        DriverSession session;
+        synchronized (SESSIONS) {
+            WeakReference<DriverSession> reference = SESSIONS.get(driver);
+            session = null == reference ? null : reference.get();
+            if (null != session) {
+                return session;
+            }
+            session = new DriverSession(driver);
+            SESSIONS.put(driver, new WeakReference<>(session));
+        }
+        endQuitSessions();
+
+        return session;
+    }
+
+    /**
+     * End every session whose driver has been quit directly, so that it drops its driver without waiting for one of
+     * its Query objects to be used again.
+     */
+    private static void endQuitSessions() {
+        List<DriverSession> running;
+        synchronized (SESSIONS) {
+            running = new ArrayList<>(SESSIONS.size());
+            for (WeakReference<DriverSession> reference : SESSIONS.values()) {
+                DriverSession session = reference.get();
+                if (null != session && session.remoteSession) {
+                    running.add(session);
+                }
+            }
+        }
+        for (DriverSession session : running) {
+            session.isEnded();
+        }
+    }
+
+    /**
+     * End the session for the supplied driver, without quitting the driver.
+     * Every Query bound to it is unbound at once, however many there are.
+     *
+     * @param driver A RemoteWebdriverObject or something that extends RemoteWebDriver
+     */
+    public static void end(RemoteWebDriver driver) {
+        WeakReference<DriverSession> reference;
+        synchronized (SESSIONS) {
+            reference = SESSIONS.remove(driver);
+        }
+        DriverSession session = null == reference ? null : reference.get();
+        if (null != session) {
+            session.end();
+        }
+    }
+
+    /**
+     * Quit the supplied driver and end its session.
+     *
+     * @param driver A RemoteWebdriverObject or something that extends RemoteWebDriver
+     */
+    public static void quit(RemoteWebDriver driver) {
+        try {
+            driver.quit();
+        } finally {
+            end(driver);
+        }
+    }
+
+    /**
+     * @return Every Query that is still bound to a session that has ended, grouped by the driver it was bound to
+     */
+    public static Map<String, List<Query>> leakedQueries() {
+        endQuitSessions();
+        Map<String, List<Query>> leaked = new LinkedHashMap<>();
+        synchronized (ENDED) {
+            ENDED.removeIf(reference -> null == reference.get());
+            for (WeakReference<DriverSession> reference : ENDED) {
+                DriverSession session = reference.get();
+                if (null != session) {
+                    List<Query> bound = session.boundQueries();
+                    if (!bound.isEmpty()) {
+                        leaked.computeIfAbsent(session.description, key -> new ArrayList<>()).addAll(bound);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableMap(leaked);
+    }
+
+    /**
+     * A session ends when end() or quit() is called, or when the driver has been quit directly (RemoteWebDriver.quit()
+     * clears the driver's session id).
+     *
+     * @return true if this session has ended
+     */
+    public boolean isEnded() {
+        RemoteWebDriver current = driver;
+        if (null == current) {
+            return true;
+        }
+        if (remoteSession && null == current.getSessionId()) {
+            end(current);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Wait for any elements that are being prefetched for this session (see
+     * AssignDriver.initQueryObjects(Object, RemoteWebDriver, boolean)), and any other asynchronous lookups queued
+     * against it so far (see AsyncQueries).
+     * <p>
+     * Every command sent through a Query waits for them automatically, so that a background lookup never shares the
+     * driver with the calling thread.  Call this before sending commands to the driver yourself (e.g. switching frames)
+     * straight after binding a page object with prefetching turned on, or after queuing asynchronous lookups.
+     */
+    public void awaitPrefetch() {
+        RemoteWebDriver current = driver;
+        if (null != current) {
+            AsyncQueries.awaitSessionTasks(current);
+        }
+    }
+
+    /**
+     * @return The driver for this session, once any elements being prefetched or looked up asynchronously for it have been found
+     * @throws IllegalStateException if this session has ended
+     */
+    public RemoteWebDriver getDriver() {
+        awaitPrefetch();
+
+        return runningDriver();
+    }
+
+    /**
+     * @return The driver for this session without waiting for asynchronous lookups, only for calls that are answered
+     * locally (e.g. getCapabilities()) or that queue a lookup
+     * @throws IllegalStateException if this session has ended
+     */
+    RemoteWebDriver runningDriver() {
+        RemoteWebDriver current = driver;
+        if (isEnded()) {
+            throw new IllegalStateException(String.format("The driver session '%s' has ended... You must call 'Query.usingDriver(driver)' with a new driver!", description));
+        }
+
+        return current;
+    }
+
+    private void end() {
+        RemoteWebDriver ended;
+        synchronized (this) {
+            ended = driver;
+            if (null == ended) {
+                return;
+            }
+            description = String.valueOf(ended);
+            driver = null;
+        }
+        synchronized (ENDED) {
+            ENDED.removeIf(reference -> null == reference.get());
+            ENDED.add(new WeakReference<>(this));
+        }
+        for (Query query : boundQueries()) {
+            query.sessionEnded();
+        }
+    }
+
+    /**
+     * Run the supplied lookup on this session's executor (see AsyncQueries), every other command sent through this
+     * session waits until it has finished.
+     */
+    <T> CompletableFuture<T> prefetch(Supplier<T> lookup) {
+        RemoteWebDriver current = driver;
+        if (null == current) {
+            throw new IllegalStateException(String.format("The driver session '%s' has ended... You must call 'Query.usingDriver(driver)' with a new driver!", description));
+        }
+
+        return AsyncQueries.supplyInSession(current, lookup);
+    }
+
+    /**
+     * Record that the supplied Query is bound to this session, for leakedQueries().
+     */
+    synchronized void register(Query query) {
+        if (queries.size() >= purgeThreshold) {
+            queries.removeIf(reference -> null == reference.get());
+            purgeThreshold = Math.max(16, queries.size() * 2);
+        }
+        queries.add(new WeakReference<>(query));
+    }
+
+    private synchronized List<Query> boundQueries() {
+        List<Query> bound = new ArrayList<>();
+        for (WeakReference<Query> reference : queries) {
+            Query query = reference.get();
+            if (null != query && query.session() == this) {
+                bound.add(query);
+            }
+        }
+        return bound;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.Rectangle;
+
+import java.util.Objects;
+
+/**
+ * The displayed, enabled and selected state of an element and where it is on the page, see Query.states().
+ */
+public class ElementState {
+
+    private final boolean displayed;
+    private final boolean enabled;
+    private final boolean selected;
+    private final Rectangle rect;
+
+    ElementState(boolean displayed, boolean enabled, boolean selected, Rectangle rect) {
+        this.displayed = displayed;
+        this.enabled = enabled;
+        this.selected = selected;
+        this.rect = rect;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSelected() {
+        return selected;
+    }
+
+    /**
+     * @return The position and size of the element, relative to the top left of the page
+     */
+    public Rectangle getRect() {
+        return rect;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ElementState that = (ElementState) o;
+        return displayed == that.displayed &&
+                enabled == that.enabled &&
+                selected == that.selected &&
+                Objects.equals(rect, that.rect);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(displayed, enabled, selected, rect);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ElementState{displayed=%s, enabled=%s, selected=%s, rect=%s}", displayed, enabled, selected,
+                null == rect ? null : rect.getX() + "," + rect.getY() + " " + rect.getWidth() + "x" + rect.getHeight());
+    }
+}
@@ -0,0 +1,188 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An ordered list of candidate locators for the same element, used when more than one locator may be valid while a UI
+ * is changing.
+ * <p>
+ * Candidates are tried in turn until one of them matches.  The candidate that matched is moved to the front, so the
+ * locator that worked most recently is tried first next time and the common case only costs one lookup.  Remember that
+ * every candidate that is tried without a match is subject to the driver's implicit wait.
+ * <p>
+ * Lookup statistics are kept for every candidate, see getStatistics(), so that locators that never match can be retired.
+ * <p>
+ * Example:
+ * <p>
+ * query.defaultLocator(By.id("checkout"), By.cssSelector("button.checkout"), By.xpath("//button[.='Checkout']"));
+ */
+public class FallbackLocator extends By {
+
+    private final Candidate[] declared;
+    private volatile Candidate[] order;
+
+    private FallbackLocator(By[] locators) {
+        this.declared = new Candidate[locators.length];
+        for (int i = 0; i < locators.length; i++) {
+            if (null == locators[i]) {
+                throw new NullPointerException("Locator is null!");
+            }
+            declared[i] = new Candidate(locators[i]);
+        }
+        this.order = declared.clone();
+    }
+
+    /**
+     * @param locator   The first locator to try
+     * @param fallbacks The locators to try if it does not match, in order
+     * @return A FallbackLocator, or the supplied locator if there are no fallbacks
+     */
+    public static By of(By locator, By... fallbacks) {
+        if (0 == fallbacks.length) {
+            return locator;
+        }
+        By[] locators = new By[fallbacks.length + 1];
+        locators[0] = locator;
+        System.arraycopy(fallbacks, 0, locators, 1, fallbacks.length);
+
+        return new FallbackLocator(locators);
+    }
+
+    @Override
+    public WebElement findElement(SearchContext context) {
+        NoSuchElementException lastFailure = null;
+        for (Candidate candidate : order) {
+            long start = System.nanoTime();
+            try {
+                WebElement element = context.findElement(candidate.locator);
+                matched(candidate);
+                return element;
+            } catch (NoSuchElementException e) {
+                candidate.missed(start);
+                lastFailure = e;
+            }
+        }
+
+        throw new NoSuchElementException("Cannot locate an element using " + this, lastFailure);
+    }
+
+    @Override
+    public List<WebElement> findElements(SearchContext context) {
+        for (Candidate candidate : order) {
+            long start = System.nanoTime();
+            List<WebElement> elements = context.findElements(candidate.locator);
+            if (!elements.isEmpty()) {
+                matched(candidate);
+                return elements;
+            }
+            candidate.missed(start);
+        }
+
+        return Collections.emptyList();
+    }
+
+    private void matched(Candidate candidate) {
+        candidate.matched();
+        Candidate[] current = order;
+        if (current[0] == candidate) {
+            return;
+        }
+        synchronized (this) {
+            current = order;
+            int index = Arrays.asList(current).indexOf(candidate);
+            if (index > 0) {
+                Candidate[] promoted = current.clone();
+                System.arraycopy(current, 0, promoted, 1, index);
+                promoted[0] = candidate;
+                order = promoted;
+            }
+        }
+    }
+
+    /**
+     * @return The candidate locators in the order they were supplied
+     */
+    public List<By> getLocators() {
+        List<By> locators = new ArrayList<>(declared.length);
+        for (Candidate candidate : declared) {
+            locators.add(candidate.locator);
+        }
+
+        return locators;
+    }
+
+    /**
+     * @return The candidate locators in the order they will be tried next
+     */
+    public List<By> getCurrentOrder() {
+        List<By> locators = new ArrayList<>(declared.length);
+        for (Candidate candidate : order) {
+            locators.add(candidate.locator);
+        }
+
+        return locators;
+    }
+
+    /**
+     * @return Lookup statistics for every candidate locator, in the order they were supplied
+     */
+    public List<LocatorStatistics> getStatistics() {
+        List<LocatorStatistics> statistics = new ArrayList<>(declared.length);
+        for (Candidate candidate : declared) {
+            statistics.add(new LocatorStatistics(candidate.locator, candidate.attempts.sum(), candidate.matches.sum(),
+                    candidate.missNanos.sum(), candidate.lastMatchMillis));
+        }
+
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        return "By.fallback: " + getLocators();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return getLocators().equals(((FallbackLocator) o).getLocators());
+    }
+
+    @Override
+    public int hashCode() {
+        return getLocators().hashCode();
+    }
+
+    private static class Candidate {
+
+        private final By locator;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+        private final LongAdder missNanos = new LongAdder();
+        private volatile long lastMatchMillis;
+
+        Candidate(By locator) {
+            this.locator = locator;
+        }
+
+        void matched() {
+            attempts.increment();
+            matches.increment();
+            lastMatchMillis = System.currentTimeMillis();
+        }
+
+        void missed(long start) {
+            attempts.increment();
+            missNanos.add(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ISelect;
+import org.openqa.selenium.support.ui.UnexpectedTagNameException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An ISelect that does all of its work with a single script call per method.
+ * <p>
+ * Select makes separate calls to check whether the element is a multi-select, to find the options, and to read and
+ * click each option, which adds up on dropdowns with hundreds of options.  This keeps the same semantics (matching
+ * options by visible text, value or index, only selecting the first match in a single select, refusing to deselect in
+ * a single select) but reads and updates every option inside the browser, then fires input and change events on the
+ * select element if anything changed.  Disabled options are left alone, just like clicking them would.
+ * <p>
+ * Each call only sends back what it needs: selecting and deselecting return whether an option matched, and option
+ * elements are only serialised by getOptions(), getAllSelectedOptions() and getFirstSelectedOption().
+ */
+final class FastSelect implements ISelect {
+
+    private static final String SELECT_OPTIONS = "var select = arguments[0], action = arguments[1], match = arguments[2], target = arguments[3];" +
+            "var normalise = function (text) { return (text || '').replace(/\\s+/g, ' ').trim(); };" +
+            "var matches = function (option) {" +
+            "  if (match === 'text') return normalise(option.textContent) === target || option.text.trim() === target;" +
+            "  if (match === 'value') return option.value === target;" +
+            "  if (match === 'index') return option.index === target;" +
+            "  return true;" +
+            "};" +
+            "if (action === 'state') return {tagName: select.tagName.toLowerCase(), multiple: select.multiple};" +
+            "var options = Array.prototype.slice.call(select.options), matched = false, changed = false;" +
+            "if (action === 'options') return {options: options};" +
+            "if (action === 'selected') return {options: options.filter(function (option) { return option.selected; })};" +
+            "for (var i = 0; i < options.length; i++) {" +
+            "  if (!matches(options[i])) continue;" +
+            "  matched = true;" +
+            "  var selected = action === 'select';" +
+            "  if (options[i].selected !== selected && !options[i].disabled) {" +
+            "    options[i].selected = selected;" +
+            "    changed = true;" +
+            "  }" +
+            "  if (selected && !select.multiple) break;" +
+            "}" +
+            "if (changed) {" +
+            "  select.dispatchEvent(new Event('input', {bubbles: true}));" +
+            "  select.dispatchEvent(new Event('change', {bubbles: true}));" +
+            "}" +
+            "return {matched: matched};";
+
+    private final JavascriptExecutor driver;
+    private final WebElement element;
+    private final boolean multiple;
+
+    FastSelect(JavascriptExecutor driver, WebElement element) {
+        this.driver = driver;
+        this.element = element;
+        Map<?, ?> state = run("state", "none", null);
+        if (!"select".equals(state.get("tagName"))) {
+            throw new UnexpectedTagNameException("select", String.valueOf(state.get("tagName")));
+        }
+        this.multiple = Boolean.TRUE.equals(state.get("multiple"));
+    }
+
+    @Override
+    public boolean isMultiple() {
+        return multiple;
+    }
+
+    @Override
+    public List<WebElement> getOptions() {
+        return elements(run("options", "none", null).get("options"));
+    }
+
+    @Override
+    public List<WebElement> getAllSelectedOptions() {
+        return elements(run("selected", "none", null).get("options"));
+    }
+
+    @Override
+    public WebElement getFirstSelectedOption() {
+        List<WebElement> selected = getAllSelectedOptions();
+        if (selected.isEmpty()) {
+            throw new NoSuchElementException("No options are selected");
+        }
+
+        return selected.get(0);
+    }
+
+    @Override
+    public void selectByVisibleText(String text) {
+        change("select", "text", text, "Cannot locate option with text: " + text);
+    }
+
+    @Override
+    public void selectByIndex(int index) {
+        change("select", "index", index, "Cannot locate option with index: " + index);
+    }
+
+    @Override
+    public void selectByValue(String value) {
+        change("select", "value", value, "Cannot locate option with value: " + value);
+    }
+
+    @Override
+    public void deselectAll() {
+        checkMultiple();
+        run("deselect", "all", null);
+    }
+
+    @Override
+    public void deselectByValue(String value) {
+        checkMultiple();
+        change("deselect", "value", value, "Cannot locate option with value: " + value);
+    }
+
+    @Override
+    public void deselectByIndex(int index) {
+        checkMultiple();
+        change("deselect", "index", index, "Cannot locate option with index: " + index);
+    }
+
+    @Override
+    public void deselectByVisibleText(String text) {
+        checkMultiple();
+        change("deselect", "text", text, "Cannot locate option with text: " + text);
+    }
+
+    private void checkMultiple() {
+        if (!multiple) {
+            throw new UnsupportedOperationException("You may only deselect options of a multi-select");
+        }
+    }
+
+    private void change(String action, String match, Object target, String notFound) {
+        if (!Boolean.TRUE.equals(run(action, match, target).get("matched"))) {
+            throw new NoSuchElementException(notFound);
+        }
+    }
+
+    private Map<?, ?> run(String action, String match, Object target) {
+        Object state = driver.executeScript(SELECT_OPTIONS, element, action, match, target);
+        if (!(state instanceof Map)) {
+            throw new IllegalStateException("Unable to read the options of " + element);
+        }
+
+        return (Map<?, ?>) state;
+    }
+
+    private static List<WebElement> elements(Object options) {
+        List<WebElement> elements = new ArrayList<>();
+        for (Object option : (List<?>) options) {
+            elements.add((WebElement) option);
+        }
+
+        return elements;
+    }
+}
@@ -0,0 +1,99 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of the implicit wait of each driver, so that Query.isPresent(), isAbsent() and countNow() can look for
+ * elements without waiting on drivers that cannot run scripts.
+ * <p>
+ * WebDriver has no way to read the implicit wait back, so set it through this class instead of
+ * driver.manage().timeouts() and Query will know what it is.  A driver that was never set here is assumed to have no
+ * implicit wait (the WebDriver default), and is never changed.
+ * <p>
+ * A lookup without waiting sets the implicit wait to zero and puts it straight back afterwards, even if the lookup
+ * fails, so the driver is never left with a different implicit wait.
+ */
+public final class ImplicitWait {
+
+    private static final Map<RemoteWebDriver, State> STATES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static volatile boolean tracking;
+
+    private ImplicitWait() {
+    }
+
+    /**
+     * Set the implicit wait of the supplied driver.
+     * <p>
+     * This is the only way Query can find out what the implicit wait is, an implicit wait set directly through
+     * driver.manage().timeouts() is not seen and would be replaced by the last value set here after a check without
+     * waiting.
+     *
+     * @param driver  A RemoteWebdriverObject or something that extends RemoteWebDriver
+     * @param timeout The implicit wait
+     */
+    public static void set(RemoteWebDriver driver, Duration timeout) {
+        if (null == driver) {
+            throw new NullPointerException("Driver object is null!");
+        }
+        State state = STATES.computeIfAbsent(driver, key -> new State());
+        synchronized (state) {
+            apply(driver, timeout.toMillis());
+            state.configuredMillis = timeout.toMillis();
+        }
+        tracking = true;
+    }
+
+    /**
+     * This will return the implicit wait last set through set(), an implicit wait set directly through
+     * driver.manage().timeouts() is not seen.
+     *
+     * @param driver A RemoteWebdriverObject or something that extends RemoteWebDriver
+     * @return The implicit wait set with set(), or zero
+     */
+    public static Duration get(RemoteWebDriver driver) {
+        State state = tracking ? STATES.get(driver) : null;
+        if (null == state) {
+            return Duration.ZERO;
+        }
+        synchronized (state) {
+            return Duration.ofMillis(state.configuredMillis);
+        }
+    }
+
+    /**
+     * Run a lookup with the implicit wait of the supplied driver set to zero, the wait is put back as soon as the
+     * lookup has finished.
+     */
+    static <T> T withoutWait(RemoteWebDriver driver, Supplier<T> lookup) {
+        State state = tracking ? STATES.get(driver) : null;
+        if (null == state) {
+            return lookup.get();
+        }
+        synchronized (state) {
+            if (state.configuredMillis == 0) {
+                return lookup.get();
+            }
+            apply(driver, 0);
+            try {
+                return lookup.get();
+            } finally {
+                apply(driver, state.configuredMillis);
+            }
+        }
+    }
+
+    private static void apply(RemoteWebDriver driver, long millis) {
+        driver.manage().timeouts().implicitlyWait(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private static class State {
+        private long configuredMillis;
+    }
+}
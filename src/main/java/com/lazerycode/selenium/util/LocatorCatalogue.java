@@ -0,0 +1,349 @@
+package com.lazerycode.selenium.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Locators for Query objects, loaded from an external catalogue file instead of being hard coded in page objects.
+ * <p>
+ * The catalogue is a properties file, each key is the name of a Query and each value is a locator written as
+ * strategy=value (see QueryLocator).  A browser specific locator is added by putting @browserName after the name:
+ * <p>
+ * login.username=id=username
+ * login.username@googlechrome=css=#login input[name='user']
+ * login.username@android=xpath=//*[@resource-id='user']
+ * <p>
+ * Catalogues are compiled into a compact index (see compile()) which is memory mapped when it is opened, so opening a
+ * catalogue costs the same however many locators it holds.  Each entry is only read, and its locators only created,
+ * the first time it is used; a Query returned by query() does not even do that until its by() is first needed.
+ * Catalogues can be changed without recompiling the page objects that use them, see openOrCompile().
+ */
+public final class LocatorCatalogue {
+
+    /**
+     * "QLC" followed by the version of the index format.
+     */
+    private static final int MAGIC = 0x514C4332;
+    private static final int HEADER_SIZE = 12;
+    private static final char BROWSER_SEPARATOR = '@';
+
+    private final ByteBuffer index;
+    private final String source;
+    private final int size;
+    private final ConcurrentMap<String, QueryDefinition> definitions = new ConcurrentHashMap<>();
+
+    /**
+     * The header (magic, total length, entry count) is checked here, so a truncated index or one written by another
+     * version is rejected when it is opened.  Entries are bounds checked as they are read.
+     */
+    private LocatorCatalogue(ByteBuffer index, String source) {
+        this.index = index;
+        this.source = source;
+        if (index.limit() < HEADER_SIZE || index.getInt(0) != MAGIC) {
+            throw corrupt("it is not a compiled locator catalogue, or it was compiled by a different version");
+        }
+        if (index.getInt(4) != index.limit()) {
+            throw corrupt(String.format("expected %d bytes but found %d", index.getInt(4), index.limit()));
+        }
+        this.size = index.getInt(8);
+        if (size < 0 || size > (index.limit() - HEADER_SIZE) / 4) {
+            throw corrupt("invalid entry count " + size);
+        }
+    }
+
+    /**
+     * Compile a properties catalogue into an index that can be opened with open().
+     *
+     * @param catalogue The properties file to read
+     * @param index     The index file to write
+     * @throws IOException              if the catalogue cannot be read or the index cannot be written
+     * @throws IllegalArgumentException if a locator is not a valid strategy=value string
+     */
+    public static void compile(Path catalogue, Path index) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(catalogue, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Path temporary = Files.createTempFile(index.toAbsolutePath().getParent(), index.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, compile(properties));
+            Files.move(temporary, index, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static byte[] compile(Properties properties) throws IOException {
+        TreeMap<String, Map<String, String>> entries = new TreeMap<>(LocatorCatalogue::compareUtf8);
+        for (String key : properties.stringPropertyNames()) {
+            int separator = key.lastIndexOf(BROWSER_SEPARATOR);
+            String name = separator < 0 ? key : key.substring(0, separator);
+            String browser = separator < 0 ? "" : key.substring(separator + 1);
+            String locator = properties.getProperty(key).trim();
+            try {
+                LocatorSpec.parse(locator);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Invalid locator for '%s': %s", key, e.getMessage()), e);
+            }
+            entries.computeIfAbsent(name, ignored -> new TreeMap<>()).put(browser, locator);
+        }
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordData = new DataOutputStream(records);
+        List<Integer> offsets = new ArrayList<>(entries.size());
+        int headerSize = HEADER_SIZE + 4 * entries.size();
+        for (Map.Entry<String, Map<String, String>> entry : entries.entrySet()) {
+            offsets.add(headerSize + recordData.size());
+            writeString(recordData, entry.getKey());
+            recordData.writeInt(entry.getValue().size());
+            for (Map.Entry<String, String> locator : entry.getValue().entrySet()) {
+                writeString(recordData, locator.getKey());
+                writeString(recordData, locator.getValue());
+            }
+        }
+
+        ByteArrayOutputStream compiled = new ByteArrayOutputStream(headerSize + records.size());
+        DataOutputStream compiledData = new DataOutputStream(compiled);
+        compiledData.writeInt(MAGIC);
+        compiledData.writeInt(headerSize + records.size());
+        compiledData.writeInt(entries.size());
+        for (int offset : offsets) {
+            compiledData.writeInt(offset);
+        }
+        records.writeTo(compiledData);
+
+        return compiled.toByteArray();
+    }
+
+    /**
+     * Memory map a compiled catalogue index.
+     *
+     * @param index An index written by compile()
+     * @return LocatorCatalogue
+     * @throws IOException              if the index cannot be read
+     * @throws IllegalArgumentException if the index is truncated, or was not written by this version of compile()
+     */
+    public static LocatorCatalogue open(Path index) throws IOException {
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+            return new LocatorCatalogue(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), index.toString());
+        }
+    }
+
+    /**
+     * Open a catalogue, compiling it first if the index does not exist, is older than the catalogue, or cannot be used
+     * (e.g. it was compiled by a different version).
+     *
+     * @param catalogue The properties file
+     * @param index     The index file
+     * @return LocatorCatalogue
+     * @throws IOException              if the catalogue cannot be read or the index cannot be read or written
+     * @throws IllegalArgumentException if a locator is not a valid strategy=value string
+     */
+    public static LocatorCatalogue openOrCompile(Path catalogue, Path index) throws IOException {
+        if (!Files.exists(index) || Files.getLastModifiedTime(catalogue).compareTo(Files.getLastModifiedTime(index)) > 0) {
+            compile(catalogue, index);
+            return open(index);
+        }
+        try {
+            return open(index);
+        } catch (IllegalArgumentException e) {
+            compile(catalogue, index);
+            return open(index);
+        }
+    }
+
+    /**
+     * @return The number of named entries in this catalogue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param name The name of an entry
+     * @return true if this catalogue has an entry with the supplied name
+     */
+    public boolean contains(String name) {
+        return definitions.containsKey(name) || find(name.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    /**
+     * This will return the locators for the supplied name, they are read from the index the first time they are asked for.
+     *
+     * @param name The name of an entry
+     * @return QueryDefinition
+     * @throws IllegalArgumentException if this catalogue does not have an entry with the supplied name
+     */
+    public QueryDefinition definition(String name) {
+        QueryDefinition definition = definitions.get(name);
+        if (null == definition) {
+            definition = definitions.computeIfAbsent(name, this::readDefinition);
+        }
+
+        return definition;
+    }
+
+    /**
+     * This will return a new Query for the supplied name.
+     * <p>
+     * Its locators are not read from the catalogue until by() is first needed, e.g. by the first lookup.  Locators added
+     * to the Query directly before then take precedence over the catalogue.
+     *
+     * @param name The name of an entry
+     * @return Query
+     * @throws IllegalArgumentException if this catalogue does not have an entry with the supplied name
+     */
+    public Query query(String name) {
+        if (!contains(name)) {
+            throw missing(name);
+        }
+
+        return new Query().pendingLocators(() -> definition(name));
+    }
+
+    /**
+     * @return The number of entries that have been read from the index so far
+     */
+    public int getLoadedCount() {
+        return definitions.size();
+    }
+
+    private QueryDefinition readDefinition(String name) {
+        int offset = find(name.getBytes(StandardCharsets.UTF_8));
+        if (offset < 0) {
+            throw missing(name);
+        }
+        int position = offset + 4 + readInt(offset);
+        int locators = readInt(position);
+        position += 4;
+        if (locators < 0 || locators > (index.limit() - position) / 8) {
+            throw corrupt(String.format("invalid locator count %d for '%s'", locators, name));
+        }
+        QueryDefinition definition = null;
+        List<String[]> specific = new ArrayList<>(locators);
+        for (int i = 0; i < locators; i++) {
+            String browser = readString(position);
+            position += 4 + readInt(position);
+            String locator = readString(position);
+            position += 4 + readInt(position);
+            if (browser.isEmpty()) {
+                definition = QueryDefinition.of(LocatorSpec.parse(locator).toBy());
+            } else {
+                specific.add(new String[]{browser, locator});
+            }
+        }
+        if (null == definition) {
+            definition = QueryDefinition.of(null);
+        }
+        for (String[] locator : specific) {
+            definition = definition.withSpecificLocator(locator[0], LocatorSpec.parse(locator[1]).toBy());
+        }
+
+        return definition;
+    }
+
+    /**
+     * Binary search the sorted entry offsets, comparing the UTF-8 bytes of the names without decoding them.
+     *
+     * @return The offset of the entry, or -1 if there is no entry with the supplied name
+     */
+    private int find(byte[] name) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int offset = readInt(HEADER_SIZE + 4 * middle);
+            int comparison = compareName(offset, name);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private int compareName(int offset, byte[] name) {
+        int length = readLength(offset);
+        int common = Math.min(length, name.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (index.get(offset + 4 + i) & 0xff) - (name[i] & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - name.length;
+    }
+
+    private String readString(int offset) {
+        byte[] bytes = new byte[readLength(offset)];
+        ByteBuffer view = index.duplicate();
+        ((Buffer) view).position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readInt(int position) {
+        if (position < HEADER_SIZE || position > index.limit() - 4) {
+            throw corrupt("offset " + position + " is outside the index");
+        }
+        return index.getInt(position);
+    }
+
+    /**
+     * @return The length of the string at the supplied offset, once it has been checked that the string is inside the index
+     */
+    private int readLength(int offset) {
+        int length = readInt(offset);
+        if (length < 0 || length > index.limit() - offset - 4) {
+            throw corrupt("a string at offset " + offset + " runs past the end of the index");
+        }
+        return length;
+    }
+
+    private IllegalArgumentException corrupt(String reason) {
+        return new IllegalArgumentException(String.format("The locator catalogue index '%s' cannot be used, %s... Compile it again!", source, reason));
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static int compareUtf8(String first, String second) {
+        byte[] firstBytes = first.getBytes(StandardCharsets.UTF_8);
+        byte[] secondBytes = second.getBytes(StandardCharsets.UTF_8);
+        int common = Math.min(firstBytes.length, secondBytes.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (firstBytes[i] & 0xff) - (secondBytes[i] & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return firstBytes.length - secondBytes.length;
+    }
+
+    private static IllegalArgumentException missing(String name) {
+        return new IllegalArgumentException(String.format("The locator catalogue does not contain '%s'!", name));
+    }
+}
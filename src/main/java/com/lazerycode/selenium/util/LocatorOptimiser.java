@@ -0,0 +1,170 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Rewrites simple XPath locators into CSS selectors (or By.id) that browsers can evaluate natively.
+ * <p>
+ * Only XPath expressions that have an exact CSS equivalent are rewritten, anything else is returned untouched.  The
+ * supported subset is a path starting with // made up of element names (or *) joined by / or //, with predicates
+ * that test attributes:
+ * <p>
+ * //div[@id='x']                          becomes div[id="x"]
+ * //*[@id='x']                            becomes By.id("x")
+ * //*[@class='a']//span                   becomes *[class="a"] span
+ * //ul/li[@data-x and contains(@class,'y')] becomes ul &gt; li[data-x][class*="y"]
+ * <p>
+ * starts-with(@attr, 'x') is also supported.  Attributes whose values HTML compares case insensitively in CSS (type,
+ * lang, method, etc.) are never rewritten, nor are positional predicates, text() tests, axes or functions other than
+ * contains/starts-with.  SVG and MathML element names (svg, path, math, etc.) are not rewritten either, an XPath name
+ * test only matches HTML elements but a CSS type selector matches elements in any namespace.  The few names that HTML
+ * shares with SVG (a, script, style and title) are still rewritten, so they will also match those SVG elements.
+ * <p>
+ * The result of every rewrite attempt is cached, use getRewrites() to see which locators have been changed.
+ */
+public class LocatorOptimiser {
+
+    private static final Set<String> CASE_INSENSITIVE_ATTRIBUTES = new HashSet<>(Arrays.asList(
+            "accept", "accept-charset", "align", "alink", "axis", "bgcolor", "charset", "checked", "clear", "codetype",
+            "color", "compact", "declare", "defer", "dir", "direction", "disabled", "enctype", "face", "frame",
+            "hreflang", "http-equiv", "lang", "language", "link", "media", "method", "multiple", "nohref", "noresize",
+            "noshade", "nowrap", "readonly", "rel", "rev", "rules", "scope", "scrolling", "selected", "shape", "target",
+            "text", "type", "valign", "valuetype", "vlink"));
+    private static final Set<String> NON_HTML_ELEMENTS = new HashSet<>(Arrays.asList(
+            "animate", "animatemotion", "animatetransform", "circle", "clippath", "defs", "desc", "ellipse", "filter",
+            "foreignobject", "g", "image", "line", "lineargradient", "marker", "mask", "metadata", "mpath", "path",
+            "pattern", "polygon", "polyline", "radialgradient", "rect", "set", "stop", "svg", "switch", "symbol", "text",
+            "textpath", "tspan", "use", "view",
+            "annotation", "annotation-xml", "maction", "malignmark", "math", "menclose", "merror", "mfenced", "mfrac",
+            "mglyph", "mi", "mlabeledtr", "mmultiscripts", "mn", "mo", "mover", "mpadded", "mphantom", "mprescripts",
+            "mroot", "mrow", "ms", "mspace", "msqrt", "mstyle", "msub", "msubsup", "msup", "mtable", "mtd", "mtext", "mtr",
+            "munder", "munderover", "none", "semantics"));
+    private static final ConcurrentMap<By, By> OPTIMISED = new ConcurrentHashMap<>();
+
+    private LocatorOptimiser() {
+    }
+
+    /**
+     * @param locator The locator to optimise
+     * @return An equivalent CSS/id locator if the supplied locator is a supported XPath, otherwise the supplied locator
+     */
+    public static By optimise(By locator) {
+        if (!(locator instanceof By.ByXPath)) {
+            return locator;
+        }
+        return OPTIMISED.computeIfAbsent(locator, xpath -> {
+            By rewritten = rewrite(ScriptLocator.valueOf(xpath, "By.xpath: "));
+            return null == rewritten ? xpath : rewritten;
+        });
+    }
+
+    /**
+     * @return Every locator that has been rewritten so far, mapped to the locator that replaced it
+     */
+    public static Map<By, By> getRewrites() {
+        Map<By, By> rewrites = new LinkedHashMap<>();
+        OPTIMISED.forEach((original, optimised) -> {
+            if (!original.equals(optimised)) {
+                rewrites.put(original, optimised);
+            }
+        });
+        return Collections.unmodifiableMap(rewrites);
+    }
+
+    /**
+     * @param xpath An XPath expression
+     * @return The equivalent By object, or null if the expression is not in the supported subset
+     */
+    static By rewrite(String xpath) {
+        XPathTokenizer tokenizer = new XPathTokenizer(xpath.trim());
+        if (!tokenizer.consume("//")) {
+            return null;
+        }
+        StringBuilder css = new StringBuilder();
+        String onlyId = null;
+        int steps = 0;
+        while (true) {
+            String name = elementName(tokenizer);
+            List<String[]> conditions = null == name ? null : tokenizer.predicates(true);
+            if (null == conditions) {
+                return null;
+            }
+            css.append(name);
+            for (String[] condition : conditions) {
+                String selector = attributeSelector(condition);
+                if (null == selector) {
+                    return null;
+                }
+                css.append(selector);
+            }
+            steps++;
+            onlyId = steps == 1 && conditions.size() == 1 && "*".equals(name) && isIdEquals(conditions.get(0)) ? conditions.get(0)[2] : null;
+            if (tokenizer.atEnd()) {
+                break;
+            }
+            if (tokenizer.consume("//")) {
+                css.append(' ');
+            } else if (tokenizer.consume("/")) {
+                css.append(" > ");
+            } else {
+                return null;
+            }
+        }
+
+        return null != onlyId ? By.id(onlyId) : By.cssSelector(css.toString());
+    }
+
+    /**
+     * @return The element name at the current position, or null if it is not a name that can be rewritten (SVG and
+     * MathML names may match elements an XPath name test would not)
+     */
+    private static String elementName(XPathTokenizer xpath) {
+        if (xpath.consume("*")) {
+            return "*";
+        }
+        String name = xpath.token("-_");
+        if (null == name || !name.matches("[a-z][a-z0-9-]*") || NON_HTML_ELEMENTS.contains(name) || name.startsWith("fe")) {
+            return null;
+        }
+        return name;
+    }
+
+    /**
+     * @param condition {attribute, operator, value} as read by XPathTokenizer
+     * @return The equivalent CSS attribute selector, or null if there isn't an exact equivalent (an empty id cannot be
+     * used with By.id, and CSS compares some attributes case insensitively)
+     */
+    private static String attributeSelector(String[] condition) {
+        String attribute = condition[0];
+        if (!attribute.matches("[a-z_][a-z0-9_-]*")) {
+            return null;
+        }
+        if (null == condition[1]) {
+            return "[" + attribute + "]";
+        }
+        String value = condition[2];
+        if (isIdEquals(condition) && value.isEmpty()) {
+            return null;
+        }
+        if (CASE_INSENSITIVE_ATTRIBUTES.contains(attribute) && !value.toLowerCase().equals(value.toUpperCase())) {
+            return null;
+        }
+        String operator = XPathTokenizer.CONTAINS.equals(condition[1]) ? "*=" : XPathTokenizer.STARTS_WITH.equals(condition[1]) ? "^=" : "=";
+
+        return "[" + attribute + operator + ScriptLocator.quote(value) + "]";
+    }
+
+    private static boolean isIdEquals(String[] condition) {
+        return "id".equals(condition[0]) && XPathTokenizer.EQUALS.equals(condition[1]);
+    }
+}
@@ -0,0 +1,99 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+/**
+ * Parses locators written as strategy=value strings, e.g. "id=username", "css=form > input" or "xpath=//button".
+ * <p>
+ * Supported strategies are id, css, xpath, name, className, tagName, linkText and partialLinkText.
+ */
+final class LocatorSpec {
+
+    private static final String[] STRATEGIES = {"id", "css", "xpath", "name", "className", "tagName", "linkText", "partialLinkText"};
+    private static final String[] FACTORY_METHODS = {"id", "cssSelector", "xpath", "name", "className", "tagName", "linkText", "partialLinkText"};
+
+    private final int strategy;
+    private final String value;
+
+    private LocatorSpec(int strategy, String value) {
+        this.strategy = strategy;
+        this.value = value;
+    }
+
+    /**
+     * @param locator A strategy=value string
+     * @return LocatorSpec
+     * @throws IllegalArgumentException if the string does not start with a supported strategy
+     */
+    static LocatorSpec parse(String locator) {
+        int separator = locator.indexOf('=');
+        if (separator > 0) {
+            String strategyName = locator.substring(0, separator).trim();
+            String value = locator.substring(separator + 1);
+            for (int i = 0; i < STRATEGIES.length; i++) {
+                if (STRATEGIES[i].equals(strategyName)) {
+                    if (value.isEmpty()) {
+                        throw new IllegalArgumentException(String.format("Locator '%s' does not have a value", locator));
+                    }
+                    return new LocatorSpec(i, value);
+                }
+            }
+        }
+        throw new IllegalArgumentException(String.format("Locator '%s' must start with one of id=, css=, xpath=, name=, className=, tagName=, linkText= or partialLinkText=", locator));
+    }
+
+    By toBy() {
+        switch (strategy) {
+            case 0:
+                return By.id(value);
+            case 1:
+                return By.cssSelector(value);
+            case 2:
+                return By.xpath(value);
+            case 3:
+                return By.name(value);
+            case 4:
+                return By.className(value);
+            case 5:
+                return By.tagName(value);
+            case 6:
+                return By.linkText(value);
+            default:
+                return By.partialLinkText(value);
+        }
+    }
+
+    /**
+     * @return Java source that creates the equivalent By object, e.g. org.openqa.selenium.By.id("username")
+     */
+    String toJavaSource() {
+        StringBuilder source = new StringBuilder("org.openqa.selenium.By.").append(FACTORY_METHODS[strategy]).append("(\"");
+        for (char character : value.toCharArray()) {
+            switch (character) {
+                case '"':
+                    source.append("\\\"");
+                    break;
+                case '\\':
+                    source.append("\\\\");
+                    break;
+                case '\n':
+                    source.append("\\n");
+                    break;
+                case '\r':
+                    source.append("\\r");
+                    break;
+                case '\t':
+                    source.append("\\t");
+                    break;
+                default:
+                    if (character < 0x20 || character > 0x7e) {
+                        source.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        source.append(character);
+                    }
+            }
+        }
+
+        return source.append("\")").toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+/**
+ * How often one of the candidates of a FallbackLocator has been tried, and how often it matched.
+ */
+public class LocatorStatistics {
+
+    private final By locator;
+    private final long attempts;
+    private final long matches;
+    private final long missNanos;
+    private final long lastMatchMillis;
+
+    LocatorStatistics(By locator, long attempts, long matches, long missNanos, long lastMatchMillis) {
+        this.locator = locator;
+        this.attempts = attempts;
+        this.matches = matches;
+        this.missNanos = missNanos;
+        this.lastMatchMillis = lastMatchMillis;
+    }
+
+    /**
+     * @return The candidate locator
+     */
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * @return The number of times this locator has been tried
+     */
+    public long getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return The number of times this locator matched
+     */
+    public long getMatches() {
+        return matches;
+    }
+
+    /**
+     * @return The number of times this locator was tried without a match
+     */
+    public long getMisses() {
+        return attempts - matches;
+    }
+
+    /**
+     * @return The total time spent trying this locator without a match, in nanoseconds
+     */
+    public long getMissNanos() {
+        return missNanos;
+    }
+
+    /**
+     * @return When this locator last matched (milliseconds since the epoch), or 0 if it has never matched
+     */
+    public long getLastMatchMillis() {
+        return lastMatchMillis;
+    }
+
+    /**
+     * @return true if this locator has been tried but has never matched, i.e. it is a candidate for retirement
+     */
+    public boolean isDead() {
+        return attempts > 0 && matches == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s attempts=%d matches=%d misses=%d", locator, attempts, matches, getMisses());
+    }
+}
@@ -0,0 +1,220 @@
+package com.lazerycode.selenium.util;
+
+import io.appium.java_client.MobileBy;
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Rewrites simple XPath locators used against an Appium native context into the platform's own locator strategies,
+ * which do not need the whole UI tree to be serialised on every lookup.
+ * <p>
+ * The supported subset is a single step starting with // (a class name or *) with predicates that test attributes
+ * (@attr='x', contains(@attr, 'x') or starts-with(@attr, 'x')) joined by and:
+ * <p>
+ * Android:
+ * //*[@content-desc='Login']                              becomes MobileBy.AccessibilityId("Login")
+ * //android.widget.Button[@text='OK' and @enabled='true'] becomes new UiSelector().className("android.widget.Button").text("OK").enabled(true)
+ * <p>
+ * iOS:
+ * //*[@name='Login']                                      becomes MobileBy.AccessibilityId("Login")
+ * //XCUIElementTypeButton[contains(@label,'Log')]         becomes the predicate string type == 'XCUIElementTypeButton' AND label CONTAINS 'Log'
+ * <p>
+ * Anything else (paths with more than one step, positional predicates, text() tests, axes, unsupported attributes) is
+ * returned untouched.  The result of every translation attempt is cached per platform, use getTranslations() to see
+ * which locators have been changed.
+ */
+public class NativeLocatorTranslator {
+
+    static final String ANDROID = "ANDROID";
+    static final String IOS = "IOS";
+
+    private static final Map<String, String> ANDROID_EQUALS = new HashMap<>();
+    private static final Map<String, String> ANDROID_CONTAINS = new HashMap<>();
+    private static final Map<String, String> ANDROID_STARTS_WITH = new HashMap<>();
+    private static final Set<String> ANDROID_BOOLEANS = new HashSet<>(Arrays.asList(
+            "checkable", "checked", "clickable", "enabled", "focusable", "focused", "long-clickable", "scrollable", "selected"));
+    private static final Set<String> IOS_STRINGS = new HashSet<>(Arrays.asList("name", "label", "value", "type"));
+    private static final Set<String> IOS_BOOLEANS = new HashSet<>(Arrays.asList("enabled", "visible", "accessible"));
+    private static final ConcurrentMap<String, ConcurrentMap<By, By>> TRANSLATED = new ConcurrentHashMap<>();
+
+    static {
+        ANDROID_EQUALS.put("text", "text");
+        ANDROID_EQUALS.put("content-desc", "description");
+        ANDROID_EQUALS.put("resource-id", "resourceId");
+        ANDROID_EQUALS.put("class", "className");
+        ANDROID_EQUALS.put("package", "packageName");
+        ANDROID_CONTAINS.put("text", "textContains");
+        ANDROID_CONTAINS.put("content-desc", "descriptionContains");
+        ANDROID_STARTS_WITH.put("text", "textStartsWith");
+        ANDROID_STARTS_WITH.put("content-desc", "descriptionStartsWith");
+    }
+
+    private NativeLocatorTranslator() {
+    }
+
+    /**
+     * @param locator  The locator to translate
+     * @param platform The PLATFORM_NAME of the native context (ANDROID or IOS, case insensitive)
+     * @return A native locator for the platform if the supplied locator is a supported XPath, otherwise the supplied locator
+     */
+    public static By translate(By locator, String platform) {
+        if (!(locator instanceof By.ByXPath) || null == platform) {
+            return locator;
+        }
+        String platformName = platform.toUpperCase();
+        if (!ANDROID.equals(platformName) && !IOS.equals(platformName)) {
+            return locator;
+        }
+        return TRANSLATED.computeIfAbsent(platformName, key -> new ConcurrentHashMap<>()).computeIfAbsent(locator, xpath -> {
+            By translated = translate(ScriptLocator.valueOf(xpath, "By.xpath: "), platformName);
+            return null == translated ? xpath : translated;
+        });
+    }
+
+    /**
+     * @return Every locator that has been translated so far for each platform, mapped to the locator that replaced it
+     */
+    public static Map<String, Map<By, By>> getTranslations() {
+        Map<String, Map<By, By>> translations = new LinkedHashMap<>();
+        TRANSLATED.forEach((platform, locators) -> {
+            Map<By, By> translated = new LinkedHashMap<>();
+            locators.forEach((original, replacement) -> {
+                if (!original.equals(replacement)) {
+                    translated.put(original, replacement);
+                }
+            });
+            if (!translated.isEmpty()) {
+                translations.put(platform, Collections.unmodifiableMap(translated));
+            }
+        });
+        return Collections.unmodifiableMap(translations);
+    }
+
+    /**
+     * @param xpath    An XPath expression
+     * @param platform ANDROID or IOS
+     * @return The equivalent native By object, or null if the expression is not in the supported subset
+     */
+    static By translate(String xpath, String platform) {
+        XPathTokenizer tokenizer = new XPathTokenizer(xpath.trim());
+        if (!tokenizer.consume("//")) {
+            return null;
+        }
+        String name = tokenizer.consume("*") ? "*" : tokenizer.token("-_.");
+        List<String[]> conditions = null == name ? null : tokenizer.predicates(false);
+        // Only a single step is supported
+        if (null == conditions || !tokenizer.atEnd()) {
+            return null;
+        }
+        return ANDROID.equals(platform) ? android(name, conditions) : ios(name, conditions);
+    }
+
+    private static By android(String name, List<String[]> conditions) {
+        if ("*".equals(name) && conditions.size() == 1 && isEquals(conditions.get(0), "content-desc")) {
+            return MobileBy.AccessibilityId(conditions.get(0)[2]);
+        }
+        if (conditions.isEmpty()) {
+            return "*".equals(name) ? null : By.className(name);
+        }
+        StringBuilder selector = new StringBuilder("new UiSelector()");
+        if (!"*".equals(name)) {
+            selector.append(".className(").append(javaString(name)).append(')');
+        }
+        for (String[] condition : conditions) {
+            String attribute = condition[0];
+            if (XPathTokenizer.EQUALS.equals(condition[1]) && ANDROID_BOOLEANS.contains(attribute)) {
+                Boolean value = booleanValue(condition[2]);
+                if (null == value) {
+                    return null;
+                }
+                selector.append('.').append(camelCase(attribute)).append('(').append(value).append(')');
+                continue;
+            }
+            Map<String, String> methods = XPathTokenizer.EQUALS.equals(condition[1]) ? ANDROID_EQUALS : XPathTokenizer.CONTAINS.equals(condition[1]) ? ANDROID_CONTAINS : ANDROID_STARTS_WITH;
+            String method = methods.get(attribute);
+            if (null == method) {
+                return null;
+            }
+            selector.append('.').append(method).append('(').append(javaString(condition[2])).append(')');
+        }
+
+        return MobileBy.AndroidUIAutomator(selector.toString());
+    }
+
+    private static By ios(String name, List<String[]> conditions) {
+        if ("*".equals(name) && conditions.size() == 1 && isEquals(conditions.get(0), "name")) {
+            return MobileBy.AccessibilityId(conditions.get(0)[2]);
+        }
+        List<String> predicates = new ArrayList<>();
+        if (!"*".equals(name)) {
+            predicates.add("type == " + predicateString(name));
+        }
+        for (String[] condition : conditions) {
+            String attribute = condition[0];
+            if (XPathTokenizer.EQUALS.equals(condition[1]) && IOS_BOOLEANS.contains(attribute)) {
+                Boolean value = booleanValue(condition[2]);
+                if (null == value) {
+                    return null;
+                }
+                predicates.add(attribute + " == " + (value ? 1 : 0));
+            } else if (IOS_STRINGS.contains(attribute)) {
+                String operator = XPathTokenizer.EQUALS.equals(condition[1]) ? "==" : XPathTokenizer.CONTAINS.equals(condition[1]) ? "CONTAINS" : "BEGINSWITH";
+                predicates.add(attribute + " " + operator + " " + predicateString(condition[2]));
+            } else {
+                return null;
+            }
+        }
+        if (predicates.isEmpty()) {
+            return null;
+        }
+
+        return MobileBy.iOSNsPredicateString(String.join(" AND ", predicates));
+    }
+
+    private static boolean isEquals(String[] condition, String attribute) {
+        return attribute.equals(condition[0]) && XPathTokenizer.EQUALS.equals(condition[1]);
+    }
+
+    /**
+     * @return The value of an XPath 'true' or 'false' literal, or null for anything else
+     */
+    private static Boolean booleanValue(String value) {
+        if (!"true".equals(value) && !"false".equals(value)) {
+            return null;
+        }
+        return Boolean.valueOf(value);
+    }
+
+    static String camelCase(String attribute) {
+        StringBuilder method = new StringBuilder(attribute.length());
+        boolean upperCase = false;
+        for (char character : attribute.toCharArray()) {
+            if (character == '-') {
+                upperCase = true;
+            } else {
+                method.append(upperCase ? Character.toUpperCase(character) : character);
+                upperCase = false;
+            }
+        }
+        return method.toString();
+    }
+
+    private static String javaString(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private static String predicateString(String value) {
+        return '\'' + value.replace("\\", "\\\\").replace("'", "\\'") + '\'';
+    }
+}
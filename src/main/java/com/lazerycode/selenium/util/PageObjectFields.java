@@ -0,0 +1,209 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * The fields of a page object class that can hold Query objects.
+ * <p>
+ * Field metadata is worked out once per class (including all superclasses) and cached, so that binding a driver to a
+ * page object only has to read field values through pre-built method handles.
+ */
+final class PageObjectFields {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final String[] EXCLUDED_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun.", "org.openqa.selenium.", "io.appium."};
+    private static final ClassValue<PageObjectFields> FIELDS = new ClassValue<PageObjectFields>() {
+        @Override
+        protected PageObjectFields computeValue(Class<?> type) {
+            return new PageObjectFields(type);
+        }
+    };
+
+    private final MethodHandle[] getters;
+    private final String[] names;
+
+    private PageObjectFields(Class<?> type) {
+        List<MethodHandle> handles = new ArrayList<>();
+        List<String> fieldNames = new ArrayList<>();
+        if (isCandidateComponent(type)) {
+            for (Field field : allFieldsOf(type)) {
+                if (holdsQueries(field, new HashSet<>())) {
+                    handles.add(getterFor(field));
+                    fieldNames.add(field.getName());
+                }
+            }
+        }
+        this.getters = handles.toArray(new MethodHandle[0]);
+        this.names = fieldNames.toArray(new String[0]);
+    }
+
+    static PageObjectFields of(Class<?> type) {
+        return FIELDS.get(type);
+    }
+
+    boolean isEmpty() {
+        return getters.length == 0;
+    }
+
+    /**
+     * Assign the supplied driver to every Query reachable from the supplied page object.
+     *
+     * @param pageObject The page object to scan
+     * @param driver     The driver to assign
+     */
+    static void bind(Object pageObject, RemoteWebDriver driver) {
+        visit(pageObject, false, (path, query) -> query.usingDriver(driver));
+    }
+
+    /**
+     * Pass every Query reachable from the supplied page object to the supplied visitor.
+     *
+     * @param pageObject The page object to scan
+     * @param withPaths  true to pass the path of each Query (e.g. header.links[2]) to the visitor, false to pass null
+     * @param visitor    Called once for each Query
+     */
+    static void visit(Object pageObject, boolean withPaths, BiConsumer<String, Query> visitor) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        visited.add(pageObject);
+        of(pageObject.getClass()).visitFields(pageObject, withPaths ? "" : null, visitor, visited);
+    }
+
+    private void visitFields(Object pageObject, String prefix, BiConsumer<String, Query> visitor, Set<Object> visited) {
+        for (int i = 0; i < getters.length; i++) {
+            visitValue(read(getters[i], pageObject), null == prefix ? null : prefix + names[i], visitor, visited);
+        }
+    }
+
+    private static void visitValue(Object value, String path, BiConsumer<String, Query> visitor, Set<Object> visited) {
+        if (null == value) {
+            return;
+        }
+        if (value instanceof Query) {
+            visitor.accept(path, (Query) value);
+        } else if (value instanceof Object[]) {
+            Object[] elements = (Object[]) value;
+            for (int i = 0; i < elements.length; i++) {
+                visitValue(elements[i], indexed(path, i), visitor, visited);
+            }
+        } else if (value instanceof Iterable) {
+            if (visited.add(value)) {
+                int index = 0;
+                for (Object element : (Iterable<?>) value) {
+                    visitValue(element, indexed(path, index++), visitor, visited);
+                }
+            }
+        } else {
+            PageObjectFields component = of(value.getClass());
+            if (!component.isEmpty() && visited.add(value)) {
+                component.visitFields(value, null == path ? null : path + ".", visitor, visited);
+            }
+        }
+    }
+
+    private static String indexed(String path, int index) {
+        return null == path ? null : path + "[" + index + "]";
+    }
+
+    private static Object read(MethodHandle getter, Object pageObject) {
+        try {
+            return (Object) getter.invokeExact(pageObject);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static MethodHandle getterFor(Field field) {
+        field.setAccessible(true);
+        try {
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                return MethodHandles.dropArguments(getter.asType(MethodType.methodType(Object.class)), 0, Object.class);
+            }
+            return getter.asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<Field> allFieldsOf(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; null != current && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static boolean holdsQueries(Field field, Set<Class<?>> visiting) {
+        Type genericType = field.getGenericType();
+        if (Iterable.class.isAssignableFrom(field.getType())) {
+            return genericType instanceof ParameterizedType && holdsQueries(((ParameterizedType) genericType).getActualTypeArguments()[0], visiting);
+        }
+        return holdsQueries(field.getType(), visiting);
+    }
+
+    private static boolean holdsQueries(Type type, Set<Class<?>> visiting) {
+        if (type instanceof WildcardType) {
+            return holdsQueries(((WildcardType) type).getUpperBounds()[0], visiting);
+        }
+        if (!(type instanceof Class)) {
+            return false;
+        }
+        Class<?> clazz = (Class<?>) type;
+        if (Query.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        if (clazz.isArray()) {
+            return holdsQueries(clazz.getComponentType(), visiting);
+        }
+        if (!isCandidateComponent(clazz)) {
+            return false;
+        }
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+            return true;
+        }
+        if (!visiting.add(clazz)) {
+            return false;
+        }
+        for (Field field : allFieldsOf(clazz)) {
+            if (holdsQueries(field, visiting)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCandidateComponent(Class<?> type) {
+        if (type.isPrimitive() || type.isEnum() || type.isArray()) {
+            return false;
+        }
+        String name = type.getName();
+        for (String excluded : EXCLUDED_PACKAGES) {
+            if (name.startsWith(excluded)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.WebElement;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Fetches the elements matched by a Query a page at a time, as they are consumed.
+ */
+class PagedElementSpliterator implements Spliterator<WebElement> {
+
+    private final Query query;
+    private final int pageSize;
+    private int offset;
+    private Iterator<WebElement> page;
+    private boolean lastPage;
+
+    PagedElementSpliterator(Query query, int pageSize) {
+        this.query = query;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super WebElement> action) {
+        if ((null == page || !page.hasNext()) && !lastPage) {
+            List<WebElement> elements = query.findPage(offset, pageSize);
+            offset += elements.size();
+            lastPage = elements.size() < pageSize;
+            page = elements.iterator();
+        }
+        if (null == page || !page.hasNext()) {
+            return false;
+        }
+        action.accept(page.next());
+
+        return true;
+    }
+
+    @Override
+    public Spliterator<WebElement> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -2,24 +2,64 @@ package com.lazerycode.selenium.util;
 
 import io.appium.java_client.MobileElement;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.ui.ISelect;
 import org.openqa.selenium.support.ui.Select;
 
+import java.time.Duration;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.openqa.selenium.remote.CapabilityType.PLATFORM_NAME;
+import static org.openqa.selenium.remote.CapabilityType.SUPPORTS_JAVASCRIPT;
 
 public class Query {
 
-    private RemoteWebDriver driver;
+    private static final int STREAM_PAGE_SIZE = 100;
+    private static final String FIND_PAGE = ScriptLocator.LOCATE_FUNCTION +
+            "var found = locate(arguments[0], arguments[1], arguments[2]);" +
+            "if (arguments[3] < 0) return found.length;" +
+            "return found.slice(arguments[3], arguments[3] + arguments[4]);";
+
+    private DriverSession session;
     private String currentType;
     private By defaultLocator;
     private final HashMap<String, By> customLocators = new HashMap<>();
+    private final LinkedHashMap<CapabilityRule, By> capabilityLocators = new LinkedHashMap<>();
+    private Supplier<QueryDefinition> pendingLocators;
+    private By resolvedLocator;
+    private Query parent;
     private boolean isAppiumDriver;
+    private boolean nativeContext;
+    private boolean scriptable;
+    private boolean optimiseLocators;
+    private boolean translateNativeLocators = true;
+    private boolean cacheElement;
+    private CachedWebElement cachedElement;
+    private CompletableFuture<WebElement> prefetchedElement;
+    private long cacheHits;
+    private long prefetchHits;
+    private long cacheMisses;
+    private QueryLocation location = new QueryLocation(Collections.<By>emptyList(), false, false);
+    private final LinkedHashMap<RemoteWebDriver, Query> boundQueries = new LinkedHashMap<>();
+    private Query fanOutParent;
 
     /**
      * Specify a default locator that will be used if a more specific by cannot be detected.
@@ -29,10 +69,22 @@ public class Query {
      */
     public Query defaultLocator(By locator) {
         this.defaultLocator = locator;
+        resolveLocator();
 
         return this;
     }
 
+    /**
+     * Specify a default locator, and the locators to fall back on if it does not match, see FallbackLocator.
+     *
+     * @param locator   A By object used for locating webElements
+     * @param fallbacks By objects to try in turn if the locator does not match
+     * @return this
+     */
+    public Query defaultLocator(By locator, By... fallbacks) {
+        return defaultLocator(FallbackLocator.of(locator, fallbacks));
+    }
+
     /**
      * Specify a alternate locator for a specific browser/device type.
      * <p>
@@ -57,10 +109,231 @@ public class Query {
 
     public Query addSpecificLocator(String browser, By locator) {
         customLocators.put(browser.toUpperCase(), locator);
+        resolveLocator();
+
+        return this;
+    }
+
+    /**
+     * Specify an alternate locator for a specific browser/device type, and the locators to fall back on if it does not
+     * match, see FallbackLocator.
+     *
+     * @param browser   String value matching a BrowserType, MobileBrowserType, or MobilePlatform capability
+     * @param locator   A By object used for locating webElements
+     * @param fallbacks By objects to try in turn if the locator does not match
+     * @return this
+     */
+    public Query addSpecificLocator(String browser, By locator, By... fallbacks) {
+        return addSpecificLocator(browser, FallbackLocator.of(locator, fallbacks));
+    }
+
+    /**
+     * Specify an alternate locator for drivers that match a combination of capabilities.
+     * <p>
+     * Rules can check the browser, a browser version range, the platform, the automationName, the deviceName or any other
+     * capability, see CapabilityRule.  If more than one rule matches the current driver the most specific rule wins
+     * (ties go to the rule added last).  A rule wins over a locator added with addSpecificLocator(String, By) unless it
+     * is less specific; a locator added with a String counts as checking a single capability.
+     * <p>
+     * Locators are only matched against the driver's capabilities when usingDriver is called, or when a locator is added
+     * to a Query that already has a driver; calling by() afterwards does not repeat the work.
+     *
+     * @param rule    The capabilities a driver must have for this locator to be used
+     * @param locator A By object used for locating webElements
+     * @return this
+     */
+    public Query addSpecificLocator(CapabilityRule rule, By locator) {
+        capabilityLocators.remove(rule);
+        capabilityLocators.put(rule, locator);
+        resolveLocator();
+
+        return this;
+    }
+
+    /**
+     * Specify an alternate locator for drivers that match a combination of capabilities, and the locators to fall back
+     * on if it does not match, see FallbackLocator.
+     *
+     * @param rule      The capabilities a driver must have for this locator to be used
+     * @param locator   A By object used for locating webElements
+     * @param fallbacks By objects to try in turn if the locator does not match
+     * @return this
+     */
+    public Query addSpecificLocator(CapabilityRule rule, By locator, By... fallbacks) {
+        return addSpecificLocator(rule, FallbackLocator.of(locator, fallbacks));
+    }
+
+    /**
+     * Enable or disable locator optimisation.
+     * <p>
+     * When enabled, simple XPath locators that have an exact CSS equivalent (e.g. //div[@id='x']) are rewritten into CSS
+     * selectors or By.id, which browsers evaluate much faster.  Anything that cannot be proven to be equivalent is used
+     * as is.  Locators are never rewritten for Appium native contexts, which do not support CSS, or for a Query scoped
+     * with within(), where // has a different meaning in XPath and CSS.  See LocatorOptimiser for
+     * the supported subset, and LocatorOptimiser.getRewrites() for a report of what has been rewritten.
+     *
+     * @param enabled true to optimise locators
+     * @return this
+     */
+    public Query optimiseLocators(boolean enabled) {
+        this.optimiseLocators = enabled;
+        resolveLocator();
+
+        return this;
+    }
+
+    /**
+     * Enable or disable the translation of XPath locators into native Appium locators.
+     * <p>
+     * This is enabled by default.  When the driver is an Appium native context, simple XPath locators are translated into
+     * an accessibility id, an Android UiSelector or an iOS predicate string for the current PLATFORM_NAME, which avoid
+     * serialising the whole UI tree on every lookup.  Anything that cannot be translated exactly is used as is, and a
+     * Query scoped with within() is never translated.  See NativeLocatorTranslator for the supported subset, and
+     * NativeLocatorTranslator.getTranslations() for a report of what has been translated.
+     *
+     * @param enabled true to translate XPath locators for Appium native contexts
+     * @return this
+     */
+    public Query translateNativeLocators(boolean enabled) {
+        this.translateNativeLocators = enabled;
+        resolveLocator();
+
+        return this;
+    }
+
+    /**
+     * Enable or disable element caching.
+     * <p>
+     * When enabled the WebElement returned by find(), findWebElement() and findSelectElement() is only looked up once and
+     * then reused. If the cached element goes stale it will be transparently located again and the failed call retried once.
+     * The cache is cleared when a new driver is supplied, or when invalidate() is called.
+     *
+     * @param enabled true to cache the located element
+     * @return this
+     */
+    public Query cacheElement(boolean enabled) {
+        this.cacheElement = enabled;
+        if (!enabled) {
+            invalidate();
+        }
+        rebindDrivers();
+
+        return this;
+    }
+
+    /**
+     * Only search for elements inside a specific frame.
+     * <p>
+     * Each locator finds a frame inside the one before it, starting from the top level document, e.g.
+     * query.inFrame(By.id("outer"), By.cssSelector("iframe.editor")).  The driver is left switched into the frame
+     * that contains the element, so that the element can be used.
+     *
+     * @param framePath Locators for the frames to switch into, outermost first
+     * @return this
+     */
+    public Query inFrame(By... framePath) {
+        location = location.withFramePath(framePath);
+        invalidate();
+        rebindDrivers();
+
+        return this;
+    }
+
+    /**
+     * Enable or disable searching every frame on the page.
+     * <p>
+     * When enabled and nothing is found in the frame the element was last found in, every frame is searched (depth
+     * first, starting from the top level document) until the locator matches.  The frame it matched in is remembered,
+     * so later lookups go straight there and the full scan only runs again on a miss.  Remember that every frame that
+     * is searched without a match is subject to the driver's implicit wait.  The driver is left switched into the frame
+     * that contains the element.
+     *
+     * @param enabled true to search every frame
+     * @return this
+     */
+    public Query searchFrames(boolean enabled) {
+        location = location.withSearchFrames(enabled);
+        invalidate();
+        rebindDrivers();
+
+        return this;
+    }
+
+    /**
+     * Enable or disable searching inside open shadow roots.
+     * <p>
+     * When enabled, locators that can be expressed as a CSS selector (see ScriptLocator) are searched for in the
+     * document and then inside every open shadow root until they match.  The shadow host they matched in is searched
+     * first next time.  Other locators, and drivers that cannot run scripts, are found the normal way.
+     *
+     * @param enabled true to search inside shadow roots
+     * @return this
+     */
+    public Query pierceShadowRoots(boolean enabled) {
+        location = location.withPierceShadowRoots(enabled);
+        invalidate();
+        rebindDrivers();
+
+        return this;
+    }
+
+    /**
+     * @return The number of times every frame had to be searched (or the inFrame() path walked) because the element was not where it was last found
+     */
+    public long getFrameScans() {
+        return location.getFrameScans();
+    }
+
+    /**
+     * Throw away any cached WebElement, and forget which frame or shadow root it was found in, so that the next lookup
+     * goes back to the driver.
+     *
+     * @return this
+     */
+    public Query invalidate() {
+        cachedElement = null;
+        prefetchedElement = null;
+        location.forget();
 
         return this;
     }
 
+    /**
+     * @return The number of lookups that were answered by the element cache
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return The number of lookups that were answered by an element prefetched when the page object was bound
+     */
+    public long getPrefetchHits() {
+        return prefetchHits;
+    }
+
+    /**
+     * @return The number of lookups that had to go back to the driver because nothing usable was cached
+     */
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * This will return lookup statistics for each candidate of the locator used with the current driver, so that
+     * fallback locators that never match can be retired.
+     *
+     * @return List&lt;LocatorStatistics&gt;, which is empty unless the locator is a FallbackLocator
+     */
+    public List<LocatorStatistics> getLocatorStatistics() {
+        By locator = by();
+        if (locator instanceof FallbackLocator) {
+            return ((FallbackLocator) locator).getStatistics();
+        }
+
+        return Collections.emptyList();
+    }
+
     /**
      * Specify the driver object that will be used to find elements
      *
@@ -69,13 +342,21 @@ public class Query {
      */
     public Query usingDriver(RemoteWebDriver driverObject) {
         if (null != driverObject) {
-            driver = driverObject;
-            Object automationName = driver.getCapabilities().getCapability("automationName");
+            DriverSession driverSession = DriverSession.of(driverObject);
+            if (session != driverSession) {
+                session = driverSession;
+                driverSession.register(this);
+            }
+            invalidate();
+            Object automationName = driverObject.getCapabilities().getCapability("automationName");
             isAppiumDriver = (null != automationName) && automationName.toString().equalsIgnoreCase("appium");
-            currentType = driver.getCapabilities().getBrowserName();
-            if (isAppiumDriver && (null == currentType || currentType.isEmpty())) {
-                currentType = driver.getCapabilities().getCapability(PLATFORM_NAME).toString();
+            currentType = driverObject.getCapabilities().getBrowserName();
+            nativeContext = isAppiumDriver && (null == currentType || currentType.isEmpty());
+            if (nativeContext) {
+                currentType = driverObject.getCapabilities().getCapability(PLATFORM_NAME).toString();
             }
+            scriptable = !nativeContext && !Boolean.FALSE.equals(driverObject.getCapabilities().getCapability(SUPPORTS_JAVASCRIPT));
+            resolveLocator();
         } else {
             throw new NullPointerException("Driver object is null!");
         }
@@ -83,6 +364,235 @@ public class Query {
         return this;
     }
 
+    /**
+     * Specify a set of drivers that this Query will be run against at the same time, see findAcrossDrivers().
+     * <p>
+     * Each driver gets its own copy of this Query with its own browser specific locator, so the copies can be used
+     * from different threads.  Copies are rebuilt whenever the locators or options of this Query change.  This does
+     * not change the driver used by find(), findWebElement() etc.
+     *
+     * @param driverObjects The drivers to run this Query against
+     * @return this
+     */
+    public Query usingDrivers(RemoteWebDriver... driverObjects) {
+        for (RemoteWebDriver driverObject : driverObjects) {
+            if (null == driverObject) {
+                throw new NullPointerException("Driver object is null!");
+            }
+        }
+        boundQueries.clear();
+        for (RemoteWebDriver driverObject : driverObjects) {
+            boundQueries.put(driverObject, fanOutCopyFor(driverObject));
+        }
+
+        return this;
+    }
+
+    /**
+     * This will return the copy of this Query bound to one of the drivers supplied to usingDrivers().
+     *
+     * @param driverObject One of the drivers supplied to usingDrivers()
+     * @return Query
+     */
+    public Query forDriver(RemoteWebDriver driverObject) {
+        Query bound = boundQueries.get(driverObject);
+        if (null == bound) {
+            throw new IllegalArgumentException("Driver object has not been supplied to 'Query.usingDrivers(...)'!");
+        }
+
+        return bound;
+    }
+
+    /**
+     * This will look up a WebElement with every driver supplied to usingDrivers() at the same time.
+     * <p>
+     * A failure against one driver does not stop the others, it is recorded in that driver's result.  The wall time
+     * is that of the slowest driver rather than the sum of all of them.
+     *
+     * @return List&lt;DriverResult&lt;WebElement&gt;&gt; in the order the drivers were supplied
+     */
+    public List<DriverResult<WebElement>> findAcrossDrivers() {
+        return runAcrossDrivers(Query::findWebElement);
+    }
+
+    /**
+     * This will look up a list of WebElement objects with every driver supplied to usingDrivers() at the same time.
+     * <p>
+     * A failure against one driver does not stop the others, it is recorded in that driver's result.
+     *
+     * @return List&lt;DriverResult&lt;List&lt;WebElement&gt;&gt;&gt; in the order the drivers were supplied
+     */
+    public List<DriverResult<List<WebElement>>> findAllAcrossDrivers() {
+        return runAcrossDrivers(Query::findAll);
+    }
+
+    private <T> List<DriverResult<T>> runAcrossDrivers(Function<Query, T> lookup) {
+        if (boundQueries.isEmpty()) {
+            throw new IllegalStateException("No driver objects have been set... You must call 'Query.usingDrivers(...)'!");
+        }
+        List<CompletableFuture<DriverResult<T>>> results = new ArrayList<>(boundQueries.size());
+        for (Map.Entry<RemoteWebDriver, Query> bound : boundQueries.entrySet()) {
+            RemoteWebDriver driverObject = bound.getKey();
+            Query query = bound.getValue();
+            results.add(AsyncQueries.supplyInSession(driverObject, () -> query.timedLookup(driverObject, lookup)));
+        }
+
+        return AsyncQueries.joinAll(results).join();
+    }
+
+    /**
+     * Locator resolution happens inside the timed lookup, so a driver without a usable locator only fails its own result.
+     */
+    private <T> DriverResult<T> timedLookup(RemoteWebDriver driverObject, Function<Query, T> lookup) {
+        long start = System.nanoTime();
+        try {
+            T result = lookup.apply(this);
+            return new DriverResult<>(driverObject, resolvedLocator, result, null, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            return new DriverResult<>(driverObject, resolvedLocator, null, e, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return A new Query with the same locators and options as this one, using the supplied driver
+     */
+    Query copyFor(RemoteWebDriver driverObject) {
+        Query copy = new Query();
+        copy.defaultLocator = defaultLocator;
+        copy.customLocators.putAll(customLocators);
+        copy.capabilityLocators.putAll(capabilityLocators);
+        copy.pendingLocators = pendingLocators;
+        copy.optimiseLocators = optimiseLocators;
+        copy.translateNativeLocators = translateNativeLocators;
+        copy.cacheElement = cacheElement;
+        copy.location = location.copy();
+        if (isScoped()) {
+            copy.parent = parent.copyFor(driverObject);
+        }
+
+        return copy.usingDriver(driverObject);
+    }
+
+    private void rebindDrivers() {
+        for (Map.Entry<RemoteWebDriver, Query> bound : boundQueries.entrySet()) {
+            bound.setValue(fanOutCopyFor(bound.getKey()));
+        }
+    }
+
+    private Query fanOutCopyFor(RemoteWebDriver driverObject) {
+        Query copy = copyFor(driverObject);
+        copy.fanOutParent = this;
+
+        return copy;
+    }
+
+    /**
+     * Called by DriverSession when the session this Query is bound to ends.  Anything that refers to the dead driver
+     * (cached and prefetched elements, the remembered shadow host, the copy held by usingDrivers()) is dropped so that
+     * this Query does not keep the driver reachable.
+     */
+    void sessionEnded() {
+        invalidate();
+        Query owner = fanOutParent;
+        if (null != owner) {
+            owner.boundQueries.entrySet().removeIf(bound -> bound.getValue() == this);
+        }
+    }
+
+    /**
+     * Only search for elements inside the element found by another Query.
+     * <p>
+     * The parent element is looked up once and then reused by every Query scoped to it, it is only looked up again if it
+     * goes stale.  Each Query in the chain still picks its own browser specific locator.  Note that, just like
+     * WebElement.findElement(), an XPath starting with // still searches the whole document; use .// to search inside
+     * the parent.
+     *
+     * @param parent The Query that finds the element to search inside
+     * @return this
+     */
+    public Query within(Query parent) {
+        for (Query ancestor = parent; null != ancestor; ancestor = ancestor.parent) {
+            if (ancestor == this) {
+                throw new IllegalArgumentException("A Query cannot be scoped to itself!");
+            }
+        }
+        this.parent = parent;
+        resolveLocator();
+        invalidate();
+
+        return this;
+    }
+
+    /**
+     * Create a new Query that searches inside the element found by this Query.
+     * If this Query already has a driver the new Query will use the same driver.
+     *
+     * @param locator A By object used for locating webElements inside this Query's element
+     * @return A new Query scoped to this one
+     */
+    public Query child(By locator) {
+        Query child = new Query().defaultLocator(locator).within(this);
+        if (driverIsSet()) {
+            child.usingDriver(boundDriver());
+        }
+
+        return child;
+    }
+
+    boolean isScoped() {
+        return null != parent;
+    }
+
+    private SearchContext searchContext() {
+        return isScoped() ? parent.findCachedElement() : driver();
+    }
+
+    /**
+     * @return true if this Query (or the Query it is scoped to) switches frames to find its elements
+     */
+    boolean searchesFrames() {
+        return isScoped() ? parent.searchesFrames() : location.usesFrames();
+    }
+
+    /**
+     * @return true if elements have to be found through QueryLocation, i.e. inside frames or shadow roots
+     */
+    private boolean searchesFramesOrShadowRoots() {
+        return location.isEnabled() && !isScoped();
+    }
+
+    private WebElement findInSearchContext(By locator) {
+        if (searchesFramesOrShadowRoots()) {
+            return location.find(driver(), locator, scriptable);
+        }
+
+        return searchContext().findElement(locator);
+    }
+
+    private List<WebElement> findAllInSearchContext(By locator) {
+        if (searchesFramesOrShadowRoots()) {
+            return location.findAll(driver(), locator, scriptable);
+        }
+
+        return searchContext().findElements(locator);
+    }
+
+    /**
+     * @return The element to search inside, or null if this Query searches the whole document
+     */
+    WebElement searchRootElement() {
+        return isScoped() ? parent.findCachedElement() : null;
+    }
+
+    /**
+     * Called when a script could not use the element returned by searchRootElement() because it had gone stale.
+     */
+    void searchRootWentStale() {
+        if (isScoped()) {
+            parent.invalidate();
+        }
+    }
+
     /**
      * This will return a WebElement object if the supplied locator could find a valid WebElement.
      *
@@ -98,7 +608,98 @@ public class Query {
      * @return WebElement
      */
     public WebElement findWebElement() {
-        return driver.findElement(by());
+        WebElement prefetched = takePrefetchedElement();
+        if (null != prefetched) {
+            return prefetched;
+        }
+        if (cacheElement) {
+            return findCachedElement();
+        }
+        return findElementUsingDriver();
+    }
+
+    WebElement findCachedElement() {
+        if (null != cachedElement && session.isEnded()) {
+            invalidate();
+        }
+        if (null == cachedElement) {
+            cacheMisses++;
+            cachedElement = new CachedWebElement(this, findElementUsingDriver());
+        } else {
+            cacheHits++;
+        }
+
+        return cachedElement;
+    }
+
+    /**
+     * Supply an element that is being looked up in the background, see AssignDriver.initQueryObjects(Object, RemoteWebDriver, boolean).
+     * It is used by the next call to findWebElement(), unless the driver or locator changes first.
+     */
+    void prefetch(CompletableFuture<WebElement> element) {
+        this.prefetchedElement = element;
+    }
+
+    private WebElement takePrefetchedElement() {
+        CompletableFuture<WebElement> prefetched = prefetchedElement;
+        if (null == prefetched) {
+            return null;
+        }
+        prefetchedElement = null;
+        WebElement element;
+        try {
+            element = prefetched.join();
+        } catch (RuntimeException ignored) {
+            return null;
+        }
+        if (null == element || session.isEnded()) {
+            return null;
+        }
+        prefetchHits++;
+        CachedWebElement warmElement = new CachedWebElement(this, element);
+        if (cacheElement) {
+            cachedElement = warmElement;
+        }
+
+        return warmElement;
+    }
+
+    WebElement relocateCachedElement() {
+        cacheMisses++;
+
+        return findElementUsingDriver();
+    }
+
+    private WebElement findElementUsingDriver() {
+        By locator = by();
+        if (QueryListeners.isEmpty()) {
+            return findInSearchContext(locator);
+        }
+        long start = System.nanoTime();
+        try {
+            WebElement element = findInSearchContext(locator);
+            QueryListeners.notify(this, locator, currentType, start, 1, null);
+            return element;
+        } catch (RuntimeException e) {
+            QueryListeners.notify(this, locator, currentType, start, 0, e);
+            throw e;
+        }
+    }
+
+    List<WebElement> findElementsUsingDriver() {
+        By locator = by();
+        if (QueryListeners.isEmpty()) {
+            return findAllInSearchContext(locator);
+        }
+        long start = System.nanoTime();
+        try {
+            List<WebElement> elements = findAllInSearchContext(locator);
+            QueryListeners.notify(this, locator, currentType, start, elements.size(), null);
+            return elements;
+        } catch (RuntimeException e) {
+            QueryListeners.notify(this, locator, currentType, start, 0, e);
+            throw e;
+        }
     }
 
     /**
@@ -108,7 +709,7 @@ public class Query {
      */
     public MobileElement findMobileElement() {
         if (isAppiumDriver) {
-            return (MobileElement) driver.findElement(by());
+            return (MobileElement) findElementUsingDriver();
         }
         throw new UnsupportedOperationException("You don't seem to be using Appium!");
     }
@@ -119,7 +720,7 @@ public class Query {
      * @return List&lt;WebElement>&gt;
      */
     public List<WebElement> findAll() {
-        return driver.findElements(by());
+        return findElementsUsingDriver();
     }
 
     /**
@@ -128,26 +729,299 @@ public class Query {
      * @return List&lt;WebElement>&gt;
      */
     public List<WebElement> findWebElements() {
-        return driver.findElements(by());
+        return findElementsUsingDriver();
     }
 
     /**
      * This will return a list of MobileElement objects, it may be empty if the supplied locator does not match any elements on screen
+     * The list is a read only view of the elements returned by the driver, nothing is copied.
      *
      * @return List&lt;MobileElement>&gt;
      */
     public List<MobileElement> findMobileElements() {
         if (isAppiumDriver) {
-            List<WebElement> elementsFound = driver.findElements(by());
-            List<MobileElement> mobileElementsToReturn = new ArrayList<>();
-            for (WebElement element : elementsFound) {
-                mobileElementsToReturn.add((MobileElement) element);
-            }
-            return mobileElementsToReturn;
+            return new MobileElementList(findElementsUsingDriver());
         }
         throw new UnsupportedOperationException("You don't seem to be using Appium!");
     }
 
+    /**
+     * This will return no more than the first n elements matched by the supplied locator.
+     * <p>
+     * Where the driver supports it the list is cut down inside the browser, so only the elements you want are sent back.
+     * Elements found by a script are not subject to the driver's implicit wait.
+     *
+     * @param n The maximum number of elements to return
+     * @return List&lt;WebElement&gt;
+     */
+    public List<WebElement> findFirst(int n) {
+        return findPage(0, n);
+    }
+
+    /**
+     * This will return a page of the elements matched by the supplied locator.
+     * <p>
+     * Where the driver supports it the page is cut out inside the browser, so only the elements you want are sent back.
+     * Elements found by a script are not subject to the driver's implicit wait.
+     *
+     * @param offset The index of the first element to return
+     * @param limit  The maximum number of elements to return
+     * @return List&lt;WebElement&gt;
+     */
+    @SuppressWarnings("unchecked")
+    public List<WebElement> findPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative!");
+        }
+        Object page = runLocatorScript(FIND_PAGE, offset, limit);
+        if (page instanceof List) {
+            return (List<WebElement>) page;
+        }
+        List<WebElement> elements = findElementsUsingDriver();
+        int from = Math.min(offset, elements.size());
+
+        return new ArrayList<>(elements.subList(from, (int) Math.min((long) from + limit, elements.size())));
+    }
+
+    /**
+     * This will return the number of elements matched by the supplied locator.
+     * <p>
+     * Where the driver supports it the elements are counted inside the browser, so no elements are sent back.
+     * Elements counted by a script are not subject to the driver's implicit wait.
+     *
+     * @return int
+     */
+    public int count() {
+        Object count = runLocatorScript(FIND_PAGE, -1, 0);
+        if (count instanceof Number) {
+            return ((Number) count).intValue();
+        }
+
+        return findElementsUsingDriver().size();
+    }
+
+    /**
+     * This will return the number of elements matched by the supplied locator right now, without waiting.
+     * <p>
+     * Where the driver supports it the elements are counted by a script, which is not subject to the implicit wait.
+     * Otherwise (e.g. Appium native contexts) the implicit wait is set to zero for the lookup and put straight back
+     * afterwards, which costs two extra driver calls.  This only works for an implicit wait set with ImplicitWait.set(),
+     * an implicit wait set directly through driver.manage().timeouts() cannot be read back, so the lookup waits for it
+     * in full when nothing is found.
+     *
+     * @return int
+     */
+    public int countNow() {
+        Object count = runLocatorScript(FIND_PAGE, -1, 0);
+        if (count instanceof Number) {
+            return ((Number) count).intValue();
+        }
+        if (isScoped()) {
+            parent.findCachedElement();
+        }
+
+        return ImplicitWait.withoutWait(driver(), this::findElementsUsingDriver).size();
+    }
+
+    /**
+     * This will return true if the supplied locator matches an element right now, without waiting.
+     * See countNow() for drivers that cannot run scripts.
+     *
+     * @return boolean
+     */
+    public boolean isPresent() {
+        return countNow() > 0;
+    }
+
+    /**
+     * This will return true if the supplied locator does not match any elements right now, without waiting.
+     * This is much quicker than findAll().isEmpty(), which waits for the full implicit wait when nothing is found.
+     * See countNow() for drivers that cannot run scripts.
+     *
+     * @return boolean
+     */
+    public boolean isAbsent() {
+        return countNow() == 0;
+    }
+
+    /**
+     * This will return a lazy stream of the elements matched by the supplied locator.
+     * <p>
+     * Where the driver supports it elements are fetched a page at a time as the stream is consumed, so a short-circuiting
+     * operation like findFirst() or limit() only transfers the elements it needs.  The page is looked up again for each
+     * fetch, so elements added or removed while the stream is being consumed may be skipped or seen twice.
+     *
+     * @return Stream&lt;WebElement&gt;
+     */
+    public Stream<WebElement> stream() {
+        by();
+        if (!canUseLocatorScripts()) {
+            return StreamSupport.stream(() -> findElementsUsingDriver().spliterator(), Spliterator.ORDERED | Spliterator.SIZED, false);
+        }
+
+        return StreamSupport.stream(new PagedElementSpliterator(this, STREAM_PAGE_SIZE), false);
+    }
+
+    /**
+     * This will return the visible text of every element matched by the supplied locator.
+     * <p>
+     * Where the driver supports it all of the text is read by a single script, rather than one getText() call per element.
+     *
+     * @return List&lt;String&gt;
+     */
+    public List<String> texts() {
+        return QueryExtraction.texts(this);
+    }
+
+    /**
+     * This will return the requested attributes of every element matched by the supplied locator.
+     * <p>
+     * Where the driver supports it all of the attributes are read by a single script (using element.getAttribute()),
+     * rather than one getAttribute() call per element and attribute.
+     *
+     * @param names The names of the attributes to read
+     * @return List&lt;Map&lt;String, String&gt;&gt; with one map per element, missing attributes are null
+     */
+    public List<Map<String, String>> attributes(String... names) {
+        return QueryExtraction.attributes(this, names);
+    }
+
+    /**
+     * This will return whether every element matched by the supplied locator is displayed, enabled and selected, and
+     * where it is on the page.
+     * <p>
+     * Where the driver supports it everything is read by a single script.
+     *
+     * @return List&lt;ElementState&gt;
+     */
+    public List<ElementState> states() {
+        return QueryExtraction.states(this);
+    }
+
+    /**
+     * This will return the text of every cell in the table found by the supplied locator.
+     * <p>
+     * Rows are found inside the table using rowQuery, and cells are found inside each row using cellQuery.  Both pick
+     * the locator for this Query's driver, they do not need a driver of their own.  Remember to use a relative XPath
+     * (e.g. ./td) if they are XPath locators.  Where the driver supports it the table is read by one script call for
+     * every 500 rows.
+     *
+     * @param rowQuery  A Query that finds each row inside the table, e.g. By.cssSelector("tbody tr")
+     * @param cellQuery A Query that finds each cell inside a row, e.g. By.tagName("td")
+     * @return QueryTable
+     */
+    public QueryTable table(Query rowQuery, Query cellQuery) {
+        return QueryExtraction.table(this, rowQuery, cellQuery);
+    }
+
+    /**
+     * This will return a lazy stream of the table found by the supplied locator, chunkRows rows at a time.
+     * <p>
+     * Use this for very large tables, each chunk is read by a single script call as it is consumed.  See table().
+     *
+     * @param rowQuery  A Query that finds each row inside the table
+     * @param cellQuery A Query that finds each cell inside a row
+     * @param chunkRows The maximum number of rows in each chunk
+     * @return Stream&lt;QueryTable&gt;
+     */
+    public Stream<QueryTable> tableChunks(Query rowQuery, Query cellQuery, int chunkRows) {
+        return QueryExtraction.tableChunks(this, rowQuery, cellQuery, chunkRows);
+    }
+
+    /**
+     * Run one of the locator scripts (see ScriptLocator) against the resolved locator.
+     *
+     * @return The value returned by the script, or null if the locator or driver cannot be used with a script
+     */
+    Object runLocatorScript(String script, Object... arguments) {
+        if (!canUseLocatorScripts()) {
+            return null;
+        }
+        if (QueryListeners.isEmpty()) {
+            return executeLocatorScript(script, arguments);
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = executeLocatorScript(script, arguments);
+            QueryListeners.notify(this, resolvedLocator, currentType, start, result instanceof List ? ((List<?>) result).size() : 0, null);
+            return result;
+        } catch (RuntimeException e) {
+            QueryListeners.notify(this, resolvedLocator, currentType, start, 0, e);
+            throw e;
+        }
+    }
+
+    private Object executeLocatorScript(String script, Object... arguments) {
+        try {
+            return driver().executeScript(script, locatorScriptArguments(arguments));
+        } catch (StaleElementReferenceException e) {
+            if (!isScoped()) {
+                throw e;
+            }
+            searchRootWentStale();
+            return driver().executeScript(script, locatorScriptArguments(arguments));
+        }
+    }
+
+    /**
+     * @return true if the resolved locator can be found with one of the ScriptLocator scripts
+     */
+    boolean canUseLocatorScripts() {
+        return null != ScriptLocator.translate(by()) && supportsScripts() && !searchesFramesOrShadowRoots();
+    }
+
+    /**
+     * @param arguments Any extra arguments required by the script
+     * @return The strategy, value and search root to pass to a locator script, followed by the supplied arguments
+     */
+    Object[] locatorScriptArguments(Object... arguments) {
+        String[] translated = ScriptLocator.translate(by());
+        Object[] allArguments = new Object[arguments.length + 3];
+        allArguments[0] = translated[0];
+        allArguments[1] = translated[1];
+        allArguments[2] = searchRootElement();
+        System.arraycopy(arguments, 0, allArguments, 3, arguments.length);
+
+        return allArguments;
+    }
+
+    /**
+     * This will look up a WebElement in the background, see AsyncQueries.
+     * Lookups against the same driver are queued and run one at a time, lookups against different drivers run in parallel.
+     *
+     * @return CompletableFuture&lt;WebElement&gt;
+     */
+    public CompletableFuture<WebElement> findAsync() {
+        return AsyncQueries.submit(this, this::findWebElement);
+    }
+
+    /**
+     * This will look up a list of WebElement objects in the background, see AsyncQueries.
+     * Lookups against the same driver are queued and run one at a time, lookups against different drivers run in parallel.
+     *
+     * @return CompletableFuture&lt;List&lt;WebElement&gt;&gt;
+     */
+    public CompletableFuture<List<WebElement>> findAllAsync() {
+        return AsyncQueries.submit(this, this::findAll);
+    }
+
+    /**
+     * This will return the By object currently associated with your driver object as a CompletableFuture.
+     * Working out the By object does not need the driver, so the future is already complete.
+     *
+     * @return CompletableFuture&lt;By&gt;
+     */
+    public CompletableFuture<By> byAsync() {
+        CompletableFuture<By> locator = new CompletableFuture<>();
+        try {
+            locator.complete(by());
+        } catch (RuntimeException e) {
+            locator.completeExceptionally(e);
+        }
+
+        return locator;
+    }
+
     /**
      * This will return a Select object if the supplied locator could find a valid WebElement.
      *
@@ -157,6 +1031,71 @@ public class Query {
         return new Select(findWebElement());
     }
 
+    /**
+     * This will return an ISelect for the element found by the supplied locator that reads and changes all of the
+     * options with a single script call per method, instead of one call per option.
+     * <p>
+     * It behaves like Select (matching by visible text, value or index and firing change events), drivers that cannot
+     * run scripts get a normal Select instead.
+     *
+     * @return ISelect
+     */
+    public ISelect findFastSelect() {
+        WebElement element = findWebElement();
+        if (!supportsScripts()) {
+            return new Select(element);
+        }
+
+        return new FastSelect(driver(), element);
+    }
+
+    /**
+     * This will wait for the supplied locator to match an element and then return it.
+     * <p>
+     * The wait happens inside the browser where possible, so it returns as soon as the element appears.
+     *
+     * @param timeout How long to wait before giving up
+     * @return WebElement
+     * @throws org.openqa.selenium.TimeoutException if no element was found in time
+     */
+    public WebElement awaitPresent(Duration timeout) {
+        return (WebElement) QueryWait.await(this, QueryWait.Condition.PRESENT, 1, timeout);
+    }
+
+    /**
+     * This will wait for the element matched by the supplied locator to be visible and then return it.
+     *
+     * @param timeout How long to wait before giving up
+     * @return WebElement
+     * @throws org.openqa.selenium.TimeoutException if the element was not visible in time
+     */
+    public WebElement awaitVisible(Duration timeout) {
+        return (WebElement) QueryWait.await(this, QueryWait.Condition.VISIBLE, 1, timeout);
+    }
+
+    /**
+     * This will wait until the supplied locator no longer matches any elements.
+     *
+     * @param timeout How long to wait before giving up
+     * @throws org.openqa.selenium.TimeoutException if elements were still found when the timeout expired
+     */
+    public void awaitGone(Duration timeout) {
+        QueryWait.await(this, QueryWait.Condition.GONE, 0, timeout);
+    }
+
+    /**
+     * This will wait until the supplied locator matches exactly the expected number of elements and then return them.
+     *
+     * @param count   The number of elements expected
+     * @param timeout How long to wait before giving up
+     * @return List&lt;WebElement&gt;
+     * @throws org.openqa.selenium.TimeoutException if the number of elements did not match in time
+     */
+    @SuppressWarnings("unchecked")
+    public List<WebElement> awaitCount(int count, Duration timeout) {
+        return (List<WebElement>) QueryWait.await(this, QueryWait.Condition.COUNT, count, timeout);
+    }
+
     /**
      * This will return the By object currently associated with your driver object.
      * This is useful for passing into ExpectedConditions
@@ -167,9 +1106,67 @@ public class Query {
         if (!driverIsSet()) {
             throw new IllegalStateException("Driver object has not been set... You must call 'Query.initQueryObject(driver);'!");
         }
-        By locatorToReturn = customLocators.getOrDefault(currentType.toUpperCase(), defaultLocator);
+        if (null != pendingLocators) {
+            loadPendingLocators();
+            resolveLocator();
+        }
+
+        return checkLocatorIsNotNull(resolvedLocator);
+    }
+
+    /**
+     * Supply locators that are only loaded the first time by() is needed, see LocatorCatalogue.
+     * Locators added directly before then take precedence.
+     */
+    Query pendingLocators(Supplier<QueryDefinition> locators) {
+        this.pendingLocators = locators;
+
+        return this;
+    }
+
+    private void loadPendingLocators() {
+        QueryDefinition definition = pendingLocators.get();
+        pendingLocators = null;
+        definition.addLocatorsTo(this);
+    }
+
+    void addMissingLocators(By locator, Map<String, By> browserLocators, Map<CapabilityRule, By> ruleLocators) {
+        if (null == defaultLocator) {
+            defaultLocator = locator;
+        }
+        browserLocators.forEach(customLocators::putIfAbsent);
+        ruleLocators.forEach(capabilityLocators::putIfAbsent);
+    }
 
-        return checkLocatorIsNotNull(locatorToReturn);
+    /**
+     * Work out which locator applies to the current driver, this is done once whenever the driver or the locators change.
+     */
+    private void resolveLocator() {
+        rebindDrivers();
+        if (!driverIsSet() || session.isEnded() || null != pendingLocators) {
+            return;
+        }
+        By locator = null == currentType ? null : customLocators.get(currentType.toUpperCase());
+        int bestSpecificity = null == locator ? 0 : 1;
+        Capabilities capabilities = boundDriver().getCapabilities();
+        for (Map.Entry<CapabilityRule, By> rule : capabilityLocators.entrySet()) {
+            int specificity = rule.getKey().specificity();
+            if (specificity >= bestSpecificity && rule.getKey().matches(capabilities)) {
+                locator = rule.getValue();
+                bestSpecificity = specificity;
+            }
+        }
+        By previousLocator = resolvedLocator;
+        resolvedLocator = null == locator ? defaultLocator : locator;
+        if (optimiseLocators && scriptable && !isScoped() && null != resolvedLocator) {
+            resolvedLocator = LocatorOptimiser.optimise(resolvedLocator);
+        }
+        if (translateNativeLocators && nativeContext && !isScoped() && null != resolvedLocator) {
+            resolvedLocator = NativeLocatorTranslator.translate(resolvedLocator, currentType);
+        }
+        if (!Objects.equals(previousLocator, resolvedLocator)) {
+            invalidate();
+        }
     }
 
     private By checkLocatorIsNotNull(By locator) {
@@ -181,7 +1178,52 @@ public class Query {
     }
 
     boolean driverIsSet() {
-        return null != driver;
+        return null != session;
+    }
+
+    RemoteWebDriver driver() {
+        return null == session ? null : session.getDriver();
+    }
+
+    /**
+     * @return The driver without waiting for asynchronous lookups queued against it, see DriverSession.runningDriver()
+     */
+    RemoteWebDriver boundDriver() {
+        return null == session ? null : session.runningDriver();
+    }
+
+    DriverSession session() {
+        return session;
+    }
+
+    /**
+     * @return true if the current driver can run JavaScript against the page (i.e. it is not an Appium native context and
+     * does not report javascriptEnabled=false)
+     */
+    boolean supportsScripts() {
+        return driverIsSet() && scriptable;
+    }
+
+    /**
+     * A read only List&lt;MobileElement&gt; view of the WebElements returned by an Appium driver.
+     */
+    private static class MobileElementList extends AbstractList<MobileElement> implements RandomAccess {
+
+        private final List<WebElement> elements;
+
+        MobileElementList(List<WebElement> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public MobileElement get(int index) {
+            return (MobileElement) elements.get(index);
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
     }
 
     @Override
@@ -190,14 +1232,16 @@ public class Query {
         if (o == null || getClass() != o.getClass()) return false;
         Query query = (Query) o;
         return isAppiumDriver == query.isAppiumDriver &&
-                Objects.equals(driver, query.driver) &&
+                Objects.equals(session, query.session) &&
                 Objects.equals(currentType, query.currentType) &&
                 Objects.equals(defaultLocator, query.defaultLocator) &&
-                Objects.equals(customLocators, query.customLocators);
+                Objects.equals(customLocators, query.customLocators) &&
+                Objects.equals(capabilityLocators, query.capabilityLocators) &&
+                Objects.equals(parent, query.parent);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(driver, currentType, defaultLocator, customLocators, isAppiumDriver);
+        return Objects.hash(session, currentType, defaultLocator, customLocators, capabilityLocators, parent, isAppiumDriver);
     }
 }
\ No newline at end of file
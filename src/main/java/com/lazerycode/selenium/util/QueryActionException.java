@@ -0,0 +1,64 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Thrown by QueryActions.perform() when one of the actions could not be performed.
+ * <p>
+ * Every action before the one that failed has been performed, nothing after it has.
+ */
+public class QueryActionException extends WebDriverException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int step;
+    private final String action;
+    private final transient Query query;
+    private final transient By locator;
+    private final String reason;
+
+    QueryActionException(int step, String action, Query query, By locator, String reason, Throwable cause) {
+        super(String.format("Action %d (%s using '%s') failed: %s", step, action, locator, reason), cause);
+        this.step = step;
+        this.action = action;
+        this.query = query;
+        this.locator = locator;
+        this.reason = reason;
+    }
+
+    /**
+     * @return The position of the action that failed, starting from 0 in the order the actions were added
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return The action that failed: type, clear, click or select
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * @return The Query the action was performed against
+     */
+    public Query getQuery() {
+        return query;
+    }
+
+    /**
+     * @return The locator that was used for the Query, or null if no locator could be picked
+     */
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * @return Why the action failed, e.g. "no such element" or "element is disabled"
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,265 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.ui.Select;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Performs a sequence of actions (typing, clearing, clicking and selecting) against the elements of many Query objects
+ * using as few driver calls as possible.
+ * <p>
+ * Consecutive actions against Query objects that share a driver and can be located by a script are performed by a
+ * single executeScript call, which finds each element, sets values through the element's native value setter and
+ * fires input and change events, so frameworks such as React and Angular see the change.  Anything else is performed
+ * one action at a time through the driver.  Actions are performed in the order they were added, and stop at the first
+ * one that fails, see QueryActionException.
+ * <p>
+ * Example:
+ * <p>
+ * new QueryActions().fill(values).select(country, "United Kingdom").click(submit).perform();
+ * <p>
+ * Values set by a script do not produce key events, use query.findWebElement().sendKeys() for fields that listen to them.
+ * Clicks made by a script call the element's click() method, so there are no pointer events (mousedown, mouseup etc.)
+ * and no check that the element is covered by another element or scrolled out of view; use
+ * query.findWebElement().click() where that matters.  Disabled options are never selected, the same as FastSelect.
+ * Elements located by a script are not subject to the driver's implicit wait.
+ */
+public class QueryActions {
+
+    static final String TYPE = "type";
+    static final String CLEAR = "clear";
+    static final String CLICK = "click";
+    static final String SELECT = "select";
+
+    private static final String PERFORM = ScriptLocator.LOCATE_FUNCTION +
+            "var fire = function (element, type) { element.dispatchEvent(new Event(type, {bubbles: true})); };" +
+            "var normalise = function (text) { return (text || '').replace(/\\s+/g, ' ').trim(); };" +
+            "var setValue = function (element, value) {" +
+            "  var prototype = element instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;" +
+            "  Object.getOwnPropertyDescriptor(prototype, 'value').set.call(element, value);" +
+            "};" +
+            "var perform = function (action, element, value) {" +
+            "  var tagName = element.tagName.toLowerCase();" +
+            "  if (element.disabled) return 'element is disabled';" +
+            "  if (action === 'click') {" +
+            "    if (element.getClientRects().length === 0) return 'element is not displayed';" +
+            "    element.click();" +
+            "  } else if (action === 'select') {" +
+            "    if (tagName !== 'select') return 'element should have been \"select\" but was \"' + tagName + '\"';" +
+            "    var matched = false;" +
+            "    for (var i = 0; i < element.options.length; i++) {" +
+            "      var option = element.options[i];" +
+            "      if (option.disabled || (normalise(option.textContent) !== value && option.text.trim() !== value)) continue;" +
+            "      matched = true;" +
+            "      option.selected = true;" +
+            "      if (!element.multiple) break;" +
+            "    }" +
+            "    if (!matched) return 'cannot locate option with text: ' + value;" +
+            "    fire(element, 'input');" +
+            "    fire(element, 'change');" +
+            "  } else if (element.isContentEditable) {" +
+            "    element.focus();" +
+            "    element.textContent = value;" +
+            "    fire(element, 'input');" +
+            "  } else {" +
+            "    if (tagName !== 'input' && tagName !== 'textarea') return 'element is not a text field but \"' + tagName + '\"';" +
+            "    if (element.readOnly) return 'element is read only';" +
+            "    element.focus();" +
+            "    setValue(element, value);" +
+            "    fire(element, 'input');" +
+            "    fire(element, 'change');" +
+            "  }" +
+            "  return null;" +
+            "};" +
+            "var steps = arguments[0];" +
+            "for (var i = 0; i < steps.length; i++) {" +
+            "  var step = steps[i], failure;" +
+            "  try {" +
+            "    var found = locate(step[0], step[1], step[2]);" +
+            "    failure = found.length === 0 ? 'no such element' : perform(step[3], found[0], step[4]);" +
+            "  } catch (e) {" +
+            "    failure = String(e);" +
+            "  }" +
+            "  if (failure) return [i, failure];" +
+            "}" +
+            "return null;";
+
+    private final List<Step> steps = new ArrayList<>();
+
+    /**
+     * Replace the value of the element found by the supplied Query.
+     *
+     * @param query The Query that finds a text field, text area or content editable element
+     * @param value The value to enter
+     * @return this
+     */
+    public QueryActions type(Query query, CharSequence value) {
+        return add(TYPE, query, value.toString());
+    }
+
+    /**
+     * Replace the value of the element found by each Query, in the iteration order of the map (use a LinkedHashMap to
+     * control the order).
+     *
+     * @param values The value to enter for each Query
+     * @return this
+     */
+    public QueryActions fill(Map<Query, ? extends CharSequence> values) {
+        for (Map.Entry<Query, ? extends CharSequence> value : values.entrySet()) {
+            type(value.getKey(), value.getValue());
+        }
+
+        return this;
+    }
+
+    /**
+     * Clear the value of the element found by the supplied Query.
+     *
+     * @param query The Query that finds a text field, text area or content editable element
+     * @return this
+     */
+    public QueryActions clear(Query query) {
+        return add(CLEAR, query, "");
+    }
+
+    /**
+     * Click the element found by the supplied Query.
+     * When performed by a script this does not produce pointer events or check that the element can be clicked.
+     *
+     * @param query The Query that finds the element to click
+     * @return this
+     */
+    public QueryActions click(Query query) {
+        return add(CLICK, query, null);
+    }
+
+    /**
+     * Select every enabled option with the supplied visible text in the select element found by the supplied Query,
+     * see Select.selectByVisibleText().
+     *
+     * @param query       The Query that finds a select element
+     * @param visibleText The visible text of the option to select
+     * @return this
+     */
+    public QueryActions select(Query query, String visibleText) {
+        return add(SELECT, query, visibleText);
+    }
+
+    private QueryActions add(String action, Query query, String argument) {
+        if (null == query) {
+            throw new NullPointerException("Query object is null!");
+        }
+        steps.add(new Step(action, query, argument));
+
+        return this;
+    }
+
+    /**
+     * Perform every action, in the order they were added.
+     *
+     * @throws QueryActionException for the first action that could not be performed, every action before it has been performed
+     *                              (if a script could not be run at all this is the first action the script would have performed)
+     */
+    public void perform() {
+        boolean[] scriptable = new boolean[steps.size()];
+        for (int i = 0; i < steps.size(); i++) {
+            try {
+                scriptable[i] = steps.get(i).query.canUseLocatorScripts();
+            } catch (RuntimeException e) {
+                throw failure(i, e.getMessage(), e);
+            }
+        }
+        int start = 0;
+        while (start < steps.size()) {
+            if (!scriptable[start]) {
+                performWithDriver(start);
+                start++;
+                continue;
+            }
+            RemoteWebDriver driver = steps.get(start).query.driver();
+            int end = start + 1;
+            while (end < steps.size() && scriptable[end] && steps.get(end).query.driver() == driver) {
+                end++;
+            }
+            performWithScript(driver, start, end);
+            start = end;
+        }
+    }
+
+    private void performWithScript(RemoteWebDriver driver, int start, int end) {
+        List<List<Object>> arguments = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            Step step = steps.get(i);
+            arguments.add(Arrays.asList(step.query.locatorScriptArguments(step.action, step.argument)));
+        }
+        Object result;
+        try {
+            result = driver.executeScript(PERFORM, arguments);
+        } catch (WebDriverException e) {
+            throw failure(start, reason(e), e);
+        }
+        if (result instanceof List && ((List<?>) result).size() == 2) {
+            List<?> failure = (List<?>) result;
+            throw failure(start + ((Number) failure.get(0)).intValue(), String.valueOf(failure.get(1)), null);
+        }
+    }
+
+    private void performWithDriver(int index) {
+        Step step = steps.get(index);
+        try {
+            WebElement element = step.query.findWebElement();
+            switch (step.action) {
+                case TYPE:
+                    element.clear();
+                    element.sendKeys(step.argument);
+                    break;
+                case CLEAR:
+                    element.clear();
+                    break;
+                case CLICK:
+                    element.click();
+                    break;
+                default:
+                    new Select(element).selectByVisibleText(step.argument);
+            }
+        } catch (WebDriverException e) {
+            throw failure(index, reason(e), e);
+        }
+    }
+
+    private static String reason(WebDriverException e) {
+        return null == e.getMessage() ? e.getClass().getSimpleName() : e.getMessage().split("\n")[0];
+    }
+
+    private QueryActionException failure(int index, String reason, Throwable cause) {
+        Step step = steps.get(index);
+        By locator;
+        try {
+            locator = step.query.by();
+        } catch (RuntimeException ignored) {
+            locator = null;
+        }
+
+        return new QueryActionException(index, step.action, step.query, locator, reason, cause);
+    }
+
+    private static class Step {
+
+        private final String action;
+        private final Query query;
+        private final String argument;
+
+        Step(String action, Query query, String argument) {
+            this.action = action;
+            this.query = query;
+            this.argument = argument;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Locates the elements for a group of Query objects using as few driver calls as possible.
+ * <p>
+ * All of the Query objects that share a driver, and have a locator that can be translated into a CSS selector or
+ * XPath, are located with a single executeScript call.  Anything else is located one Query at a time.
+ * <p>
+ * Example:
+ * <p>
+ * List&lt;WebElement&gt; elements = QueryBatch.of(username, password, submit).find();
+ * <p>
+ * Elements located by a script are not subject to the driver's implicit wait.
+ */
+public class QueryBatch {
+
+    private static final String FIND_FIRST_OF_EACH = ScriptLocator.LOCATE_FUNCTION +
+            "return arguments[0].map(function (locator) {" +
+            "  var found = locate(locator[0], locator[1]);" +
+            "  return found.length > 0 ? found[0] : null;" +
+            "});";
+
+    private final List<Query> queries = new ArrayList<>();
+
+    /**
+     * Create a batch containing the supplied Query objects.
+     *
+     * @param queries The Query objects to locate together
+     * @return A new QueryBatch
+     */
+    public static QueryBatch of(Query... queries) {
+        return new QueryBatch().add(queries);
+    }
+
+    /**
+     * Add more Query objects to this batch.
+     *
+     * @param queries The Query objects to locate together
+     * @return this
+     */
+    public QueryBatch add(Query... queries) {
+        this.queries.addAll(Arrays.asList(queries));
+
+        return this;
+    }
+
+    /**
+     * This will return a WebElement for every Query in the batch, in the order the Query objects were added.
+     *
+     * @return List&lt;WebElement&gt;
+     * @throws NoSuchElementException if any Query in the batch did not match an element
+     */
+    public List<WebElement> find() {
+        List<WebElement> elements = locate();
+        for (int i = 0; i < elements.size(); i++) {
+            if (null == elements.get(i)) {
+                throw new NoSuchElementException(String.format("Unable to locate an element using '%s'", queries.get(i).by()));
+            }
+        }
+
+        return elements;
+    }
+
+    /**
+     * Locate every Query in the batch, Query objects that do not match anything are returned as null.
+     */
+    List<WebElement> locate() {
+        WebElement[] elements = new WebElement[queries.size()];
+        Map<RemoteWebDriver, List<Integer>> scriptableByDriver = new IdentityHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            Query query = queries.get(i);
+            if (!query.isScoped() && query.canUseLocatorScripts()) {
+                scriptableByDriver.computeIfAbsent(query.driver(), driver -> new ArrayList<>()).add(i);
+            } else {
+                elements[i] = findOrNull(query);
+            }
+        }
+        for (Map.Entry<RemoteWebDriver, List<Integer>> group : scriptableByDriver.entrySet()) {
+            locateWithScript(group.getKey(), group.getValue(), elements);
+        }
+
+        return Arrays.asList(elements);
+    }
+
+    /**
+     * Start looking up the elements for the supplied Query objects in the background, with a single script call per
+     * driver, and hand each Query its element as soon as the lookup has been queued (see Query.prefetch()).
+     * Query objects that cannot be located by a script are left alone.  Other commands sent through the same
+     * DriverSession wait for the lookup to finish, see DriverSession.awaitPrefetch().
+     */
+    static void prefetch(List<Query> queries) {
+        Map<RemoteWebDriver, List<Query>> scriptableByDriver = new IdentityHashMap<>();
+        for (Query query : queries) {
+            if (query.driverIsSet() && !query.isScoped() && canPrefetch(query)) {
+                scriptableByDriver.computeIfAbsent(query.boundDriver(), driver -> new ArrayList<>()).add(query);
+            }
+        }
+        for (Map.Entry<RemoteWebDriver, List<Query>> group : scriptableByDriver.entrySet()) {
+            List<Query> batch = group.getValue();
+            CompletableFuture<List<WebElement>> elements = DriverSession.of(group.getKey()).prefetch(
+                    () -> QueryBatch.of(batch.toArray(new Query[0])).locate());
+            for (int i = 0; i < batch.size(); i++) {
+                int index = i;
+                batch.get(i).prefetch(elements.thenApply(found -> found.get(index)));
+            }
+        }
+    }
+
+    private static boolean canPrefetch(Query query) {
+        try {
+            return query.canUseLocatorScripts();
+        } catch (RuntimeException ignored) {
+            return false;
+        }
+    }
+
+    private void locateWithScript(RemoteWebDriver driver, List<Integer> indexes, WebElement[] elements) {
+        List<List<String>> locators = new ArrayList<>();
+        for (int index : indexes) {
+            locators.add(Arrays.asList(ScriptLocator.translate(queries.get(index).by())));
+        }
+        Object result = driver.executeScript(FIND_FIRST_OF_EACH, locators);
+        List<?> found = result instanceof List ? (List<?>) result : Collections.emptyList();
+        for (int i = 0; i < indexes.size(); i++) {
+            Object element = i < found.size() ? found.get(i) : null;
+            elements[indexes.get(i)] = element instanceof WebElement ? (WebElement) element : null;
+        }
+    }
+
+    private static WebElement findOrNull(Query query) {
+        try {
+            return query.findWebElement();
+        } catch (NoSuchElementException ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Assigns a driver to every Query held by a page object, binders are generated by QueryLocatorProcessor.
+ *
+ * @param <T> The page object class
+ */
+public interface QueryBinder<T> {
+
+    /**
+     * Create any Query objects described by a QueryLocator annotation that have not been created yet, then assign the
+     * supplied driver to every Query held by the page object.
+     *
+     * @param pageObject The page object
+     * @param driver     A RemoteWebdriverObject or something that extends RemoteWebDriver
+     */
+    void bind(T pageObject, RemoteWebDriver driver);
+}
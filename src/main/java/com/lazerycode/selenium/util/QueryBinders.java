@@ -0,0 +1,64 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+
+/**
+ * Works out, once per page object class, how to assign a driver to its Query objects.
+ * <p>
+ * If QueryLocatorProcessor generated a binder for the class it is used, if one was only generated for a superclass it
+ * is used for the annotated fields and the rest are bound through PageObjectFields; otherwise everything is bound
+ * through PageObjectFields.
+ */
+final class QueryBinders {
+
+    private static final ClassValue<BiConsumer<Object, RemoteWebDriver>> BINDINGS = new ClassValue<BiConsumer<Object, RemoteWebDriver>>() {
+        @Override
+        protected BiConsumer<Object, RemoteWebDriver> computeValue(Class<?> type) {
+            QueryBinder<Object> own = generatedBinderFor(type);
+            if (null != own) {
+                return own::bind;
+            }
+            for (Class<?> superclass = type.getSuperclass(); null != superclass && superclass != Object.class; superclass = superclass.getSuperclass()) {
+                QueryBinder<Object> inherited = generatedBinderFor(superclass);
+                if (null != inherited) {
+                    return (pageObject, driver) -> {
+                        inherited.bind(pageObject, driver);
+                        PageObjectFields.bind(pageObject, driver);
+                    };
+                }
+            }
+            return PageObjectFields::bind;
+        }
+    };
+
+    private QueryBinders() {
+    }
+
+    static void bind(Object pageObject, RemoteWebDriver driver) {
+        BINDINGS.get(pageObject.getClass()).accept(pageObject, driver);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static QueryBinder<Object> generatedBinderFor(Class<?> type) {
+        String packageName = null == type.getPackage() ? "" : type.getPackage().getName();
+        String simpleNames = packageName.isEmpty() ? type.getName() : type.getName().substring(packageName.length() + 1);
+        if (type.isAnonymousClass() || type.isLocalClass()) {
+            return null;
+        }
+        String binderName = (packageName.isEmpty() ? "" : packageName + ".") + simpleNames.replace('$', '_') + QueryLocatorProcessor.BINDER_SUFFIX;
+        try {
+            Class<?> binder = Class.forName(binderName, true, type.getClassLoader());
+            if (!QueryBinder.class.isAssignableFrom(binder) || !Modifier.isPublic(binder.getModifiers())) {
+                return null;
+            }
+            return (QueryBinder<Object>) binder.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
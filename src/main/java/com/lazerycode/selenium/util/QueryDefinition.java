@@ -0,0 +1,157 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * An immutable description of the locators for a Query, without a driver.
+ * <p>
+ * Definitions are interned, so identical definitions that are in use are the same object, and they are safe to share between any
+ * number of threads; hold them in static final fields and create them once.  To use one, ask a DriverContext for the
+ * Query bound to its driver:
+ * <p>
+ * static final QueryDefinition USERNAME = QueryDefinition.of(By.id("username")).withSpecificLocator(BrowserType.SAFARI, By.name("username"));
+ * <p>
+ * WebElement username = USERNAME.in(context).findWebElement();   // an explicit context
+ * <p>
+ * WebElement username = USERNAME.current().findWebElement();     // the context bound to the current thread
+ * <p>
+ * Each context creates its Query for a definition the first time it is asked for it and then reuses it, so nothing is
+ * allocated per page object and nothing is locked when the locator is looked up.
+ */
+public final class QueryDefinition {
+
+    private static final Map<QueryDefinition, WeakReference<QueryDefinition>> INTERNED = new WeakHashMap<>();
+
+    private final By defaultLocator;
+    private final Map<String, By> customLocators;
+    private final Map<CapabilityRule, By> capabilityLocators;
+    private final int hashCode;
+
+    private QueryDefinition(By defaultLocator, Map<String, By> customLocators, Map<CapabilityRule, By> capabilityLocators) {
+        this.defaultLocator = defaultLocator;
+        this.customLocators = Collections.unmodifiableMap(customLocators);
+        this.capabilityLocators = Collections.unmodifiableMap(capabilityLocators);
+        this.hashCode = Objects.hash(defaultLocator, customLocators, new ArrayList<>(capabilityLocators.entrySet()));
+    }
+
+    /**
+     * @param defaultLocator A By object used if a more specific locator cannot be found for the driver, may be null
+     * @return QueryDefinition
+     */
+    public static QueryDefinition of(By defaultLocator) {
+        return intern(new QueryDefinition(defaultLocator, new LinkedHashMap<>(), new LinkedHashMap<>()));
+    }
+
+    /**
+     * See Query.addSpecificLocator(String, By)
+     *
+     * @param browser String value matching a BrowserType, MobileBrowserType, or MobilePlatform capability
+     * @param locator A By object used for locating webElements
+     * @return A QueryDefinition with the extra locator, this definition is not changed
+     */
+    public QueryDefinition withSpecificLocator(String browser, By locator) {
+        Map<String, By> locators = new LinkedHashMap<>(customLocators);
+        locators.put(browser.toUpperCase(), locator);
+
+        return intern(new QueryDefinition(defaultLocator, locators, new LinkedHashMap<>(capabilityLocators)));
+    }
+
+    /**
+     * See Query.addSpecificLocator(CapabilityRule, By)
+     *
+     * @param rule    The capabilities a driver must have for this locator to be used
+     * @param locator A By object used for locating webElements
+     * @return A QueryDefinition with the extra locator, this definition is not changed
+     */
+    public QueryDefinition withSpecificLocator(CapabilityRule rule, By locator) {
+        Map<CapabilityRule, By> locators = new LinkedHashMap<>(capabilityLocators);
+        locators.remove(rule);
+        locators.put(rule, locator);
+
+        return intern(new QueryDefinition(defaultLocator, new LinkedHashMap<>(customLocators), locators));
+    }
+
+    /**
+     * @param context The DriverContext to use
+     * @return The Query for this definition bound to the context's driver
+     */
+    public Query in(DriverContext context) {
+        return context.query(this);
+    }
+
+    /**
+     * @return The Query for this definition bound to the DriverContext of the current thread
+     * @throws IllegalStateException if no DriverContext is bound to the current thread
+     */
+    public Query current() {
+        return DriverContext.current().query(this);
+    }
+
+    /**
+     * @return A new, unbound, Query with the locators of this definition
+     */
+    public Query newQuery() {
+        Query query = new Query().defaultLocator(defaultLocator);
+        for (Map.Entry<String, By> locator : customLocators.entrySet()) {
+            query.addSpecificLocator(locator.getKey(), locator.getValue());
+        }
+        for (Map.Entry<CapabilityRule, By> locator : capabilityLocators.entrySet()) {
+            query.addSpecificLocator(locator.getKey(), locator.getValue());
+        }
+
+        return query;
+    }
+
+    /**
+     * Add the locators of this definition to a Query, without replacing any locators it already has.
+     */
+    void addLocatorsTo(Query query) {
+        query.addMissingLocators(defaultLocator, customLocators, capabilityLocators);
+    }
+
+    /**
+     * Definitions are only interned weakly, so the intermediate definitions created while chaining withSpecificLocator()
+     * calls are garbage collected once nothing refers to them.
+     */
+    private static QueryDefinition intern(QueryDefinition definition) {
+        synchronized (INTERNED) {
+            WeakReference<QueryDefinition> reference = INTERNED.get(definition);
+            QueryDefinition interned = null == reference ? null : reference.get();
+            if (null != interned) {
+                return interned;
+            }
+            INTERNED.put(definition, new WeakReference<>(definition));
+
+            return definition;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QueryDefinition that = (QueryDefinition) o;
+        return hashCode == that.hashCode &&
+                Objects.equals(defaultLocator, that.defaultLocator) &&
+                Objects.equals(customLocators, that.customLocators) &&
+                Objects.equals(new ArrayList<>(capabilityLocators.entrySet()), new ArrayList<>(that.capabilityLocators.entrySet()));
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryDefinition{default=%s, specific=%s, rules=%s}", defaultLocator, customLocators, capabilityLocators);
+    }
+}
@@ -0,0 +1,201 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads text, attributes and state from every element matched by a Query.
+ * <p>
+ * Where possible everything is read by a single script, so the cost does not grow with the number of elements.  If the
+ * locator cannot be run as a script, or the driver cannot run scripts, each element is read through the driver instead.
+ */
+final class QueryExtraction {
+
+    static final int TABLE_CHUNK_ROWS = 500;
+
+    private static final String ELEMENT_FUNCTIONS = ScriptLocator.LOCATE_FUNCTION +
+            "var visible = function (element) {" +
+            "  var style = window.getComputedStyle(element);" +
+            "  return style.display !== 'none' && style.visibility !== 'hidden' && element.getClientRects().length > 0;" +
+            "};" +
+            "var text = function (element) {" +
+            "  if (!visible(element)) return '';" +
+            "  var value = element.innerText === undefined ? element.textContent : element.innerText;" +
+            "  return null === value ? '' : value.trim();" +
+            "};";
+    private static final String TEXTS = ELEMENT_FUNCTIONS +
+            "return locate(arguments[0], arguments[1], arguments[2]).map(text);";
+    private static final String ATTRIBUTES = ELEMENT_FUNCTIONS +
+            "var names = arguments[3];" +
+            "return locate(arguments[0], arguments[1], arguments[2]).map(function (element) {" +
+            "  return names.map(function (name) { return element.getAttribute(name); });" +
+            "});";
+    private static final String STATES = ELEMENT_FUNCTIONS +
+            "return locate(arguments[0], arguments[1], arguments[2]).map(function (element) {" +
+            "  var rect = element.getBoundingClientRect();" +
+            "  return [visible(element), !element.disabled, !!(element.checked || element.selected)," +
+            "    Math.round(rect.left + window.pageXOffset), Math.round(rect.top + window.pageYOffset)," +
+            "    Math.round(rect.width), Math.round(rect.height)];" +
+            "});";
+    private static final String TABLE = ELEMENT_FUNCTIONS +
+            "var table = locate(arguments[0], arguments[1], arguments[2])[0];" +
+            "if (!table) return null;" +
+            "var rows = locate(arguments[3], arguments[4], table);" +
+            "var offset = arguments[7], chunk = rows.slice(offset, offset + arguments[8]), columns = [];" +
+            "for (var row = 0; row < chunk.length; row++) {" +
+            "  var cells = locate(arguments[5], arguments[6], chunk[row]);" +
+            "  for (var column = 0; column < cells.length; column++) {" +
+            "    if (!columns[column]) {" +
+            "      columns[column] = [];" +
+            "      for (var padding = 0; padding < chunk.length; padding++) columns[column].push(null);" +
+            "    }" +
+            "    columns[column][row] = text(cells[column]);" +
+            "  }" +
+            "}" +
+            "return {rows: chunk.length, total: rows.length, columns: columns};";
+
+    private QueryExtraction() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> texts(Query query) {
+        Object texts = query.runLocatorScript(TEXTS);
+        if (texts instanceof List) {
+            return (List<String>) texts;
+        }
+        List<String> values = new ArrayList<>();
+        for (WebElement element : query.findAll()) {
+            values.add(element.getText());
+        }
+
+        return values;
+    }
+
+    static List<Map<String, String>> attributes(Query query, String... names) {
+        List<Map<String, String>> values = new ArrayList<>();
+        Object attributes = query.runLocatorScript(ATTRIBUTES, Arrays.asList(names));
+        if (attributes instanceof List) {
+            for (Object element : (List<?>) attributes) {
+                List<?> elementValues = (List<?>) element;
+                Map<String, String> elementAttributes = new LinkedHashMap<>();
+                for (int i = 0; i < names.length; i++) {
+                    Object value = elementValues.get(i);
+                    elementAttributes.put(names[i], null == value ? null : value.toString());
+                }
+                values.add(elementAttributes);
+            }
+            return values;
+        }
+        for (WebElement element : query.findAll()) {
+            Map<String, String> elementAttributes = new LinkedHashMap<>();
+            for (String name : names) {
+                elementAttributes.put(name, element.getAttribute(name));
+            }
+            values.add(elementAttributes);
+        }
+
+        return values;
+    }
+
+    static List<ElementState> states(Query query) {
+        List<ElementState> values = new ArrayList<>();
+        Object states = query.runLocatorScript(STATES);
+        if (states instanceof List) {
+            for (Object element : (List<?>) states) {
+                List<?> state = (List<?>) element;
+                values.add(new ElementState((Boolean) state.get(0), (Boolean) state.get(1), (Boolean) state.get(2),
+                        new Rectangle(intValue(state.get(3)), intValue(state.get(4)), intValue(state.get(6)), intValue(state.get(5)))));
+            }
+            return values;
+        }
+        for (WebElement element : query.findAll()) {
+            values.add(new ElementState(element.isDisplayed(), element.isEnabled(), element.isSelected(), element.getRect()));
+        }
+
+        return values;
+    }
+
+    static QueryTable table(Query query, Query rowQuery, Query cellQuery) {
+        List<QueryTable> chunks = new ArrayList<>();
+        tableChunks(query, rowQuery, cellQuery, TABLE_CHUNK_ROWS).forEach(chunks::add);
+
+        return chunks.size() == 1 ? chunks.get(0) : QueryTable.concat(chunks);
+    }
+
+    static Stream<QueryTable> tableChunks(Query query, Query rowQuery, Query cellQuery, int chunkRows) {
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1!");
+        }
+        By rowLocator = rowQuery.copyFor(query.driver()).by();
+        By cellLocator = cellQuery.copyFor(query.driver()).by();
+        String[] row = ScriptLocator.translate(rowLocator);
+        String[] cell = ScriptLocator.translate(cellLocator);
+        if (null == row || null == cell || !query.canUseLocatorScripts()) {
+            return Stream.of(readTableWithDriver(query, rowLocator, cellLocator));
+        }
+
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<QueryTable>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int offset;
+            private boolean finished;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super QueryTable> action) {
+                if (finished) {
+                    return false;
+                }
+                Object result = query.runLocatorScript(TABLE, row[0], row[1], cell[0], cell[1], offset, chunkRows);
+                if (!(result instanceof Map)) {
+                    throw new NoSuchElementException(String.format("Unable to locate a table using '%s'", query.by()));
+                }
+                Map<?, ?> chunk = (Map<?, ?>) result;
+                int rows = intValue(chunk.get("rows"));
+                offset += rows;
+                finished = rows < chunkRows || offset >= intValue(chunk.get("total"));
+                action.accept(new QueryTable(columnsOf(chunk.get("columns"), rows), rows));
+
+                return true;
+            }
+        }, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<String>> columnsOf(Object columns, int rows) {
+        List<List<String>> values = new ArrayList<>();
+        for (Object column : (List<?>) columns) {
+            values.add(null == column ? new ArrayList<>(Collections.nCopies(rows, null)) : (List<String>) column);
+        }
+
+        return values;
+    }
+
+    private static QueryTable readTableWithDriver(Query query, By rowLocator, By cellLocator) {
+        List<List<String>> rows = new ArrayList<>();
+        for (WebElement row : query.findWebElement().findElements(rowLocator)) {
+            List<String> cells = new ArrayList<>();
+            for (WebElement cell : row.findElements(cellLocator)) {
+                cells.add(cell.getText());
+            }
+            rows.add(cells);
+        }
+
+        return QueryTable.fromRows(rows);
+    }
+
+    private static int intValue(Object value) {
+        return ((Number) value).intValue();
+    }
+}
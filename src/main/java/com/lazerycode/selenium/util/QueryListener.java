@@ -0,0 +1,25 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+/**
+ * Notified every time a Query goes to the driver to find elements.
+ * <p>
+ * Register a listener with QueryListeners.register(listener), or list its class name in a
+ * META-INF/services/com.lazerycode.selenium.util.QueryListener file to have it picked up automatically.
+ * Listeners are called on the thread performing the lookup, so they should return quickly.
+ */
+public interface QueryListener {
+
+    /**
+     * Called after a lookup has completed.
+     *
+     * @param query         The Query that performed the lookup
+     * @param locator       The By object that was used
+     * @param browserType   The browser/platform type the locator was resolved for
+     * @param durationNanos How long the lookup took in nanoseconds
+     * @param elementCount  The number of elements found (0 if the lookup failed)
+     * @param failure       The exception thrown by the lookup, or null if it succeeded
+     */
+    void onFind(Query query, By locator, String browserType, long durationNanos, int elementCount, Throwable failure);
+}
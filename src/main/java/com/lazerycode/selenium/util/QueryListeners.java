@@ -0,0 +1,67 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * The QueryListener objects that are notified about every lookup made by a Query.
+ * <p>
+ * Listeners declared through ServiceLoader are registered automatically the first time a Query is used.
+ */
+public class QueryListeners {
+
+    private static final QueryListener[] NONE = new QueryListener[0];
+    private static volatile QueryListener[] listeners = NONE;
+
+    static {
+        for (QueryListener listener : ServiceLoader.load(QueryListener.class)) {
+            register(listener);
+        }
+    }
+
+    private QueryListeners() {
+    }
+
+    /**
+     * @param listener A listener to notify about every lookup
+     */
+    public static synchronized void register(QueryListener listener) {
+        if (null == listener) {
+            throw new NullPointerException("Listener is null!");
+        }
+        QueryListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * @param listener A previously registered listener
+     */
+    public static synchronized void unregister(QueryListener listener) {
+        List<QueryListener> remaining = new ArrayList<>(Arrays.asList(listeners));
+        remaining.remove(listener);
+        listeners = remaining.isEmpty() ? NONE : remaining.toArray(NONE);
+    }
+
+    /**
+     * Remove every registered listener.
+     */
+    public static synchronized void clear() {
+        listeners = NONE;
+    }
+
+    static boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    static void notify(Query query, By locator, String browserType, long startNanos, int elementCount, Throwable failure) {
+        long duration = System.nanoTime() - startNanos;
+        for (QueryListener listener : listeners) {
+            listener.onFind(query, locator, browserType, duration, elementCount, failure);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds elements that may be inside frames or open shadow roots, and remembers where they were last found.
+ * <p>
+ * The first lookup does a full scan (or walks the frame path), later lookups go straight to the remembered frame and
+ * shadow host.  The full scan only runs again when nothing is found there, or the remembered frame has gone.  Elements
+ * are returned with the driver switched into the frame that contains them.  If a frame on the frame path can't be
+ * found, no elements are found either.
+ */
+final class QueryLocation {
+
+    static final int MAX_FRAME_DEPTH = 8;
+    private static final By FRAMES = By.cssSelector("iframe,frame");
+
+    /**
+     * Returns [elements, host] where host is the innermost shadow host containing the elements (or null if they are in
+     * the light DOM).  arguments[1] is the shadow host the elements were last found in, it is searched first.
+     */
+    private static final String PIERCE_SHADOW_ROOTS = "var selector = arguments[0], lastHost = arguments[1];" +
+            "var toArray = function (nodes) { return Array.prototype.slice.call(nodes); };" +
+            "var search = function (root, host) {" +
+            "  var found = root.querySelectorAll(selector);" +
+            "  if (found.length) return [toArray(found), host];" +
+            "  var nodes = root.querySelectorAll('*');" +
+            "  for (var i = 0; i < nodes.length; i++) {" +
+            "    if (nodes[i].shadowRoot) {" +
+            "      var result = search(nodes[i].shadowRoot, nodes[i]);" +
+            "      if (result) return result;" +
+            "    }" +
+            "  }" +
+            "  return null;" +
+            "};" +
+            "if (lastHost && lastHost.shadowRoot) {" +
+            "  var direct = lastHost.shadowRoot.querySelectorAll(selector);" +
+            "  if (direct.length) return [toArray(direct), lastHost];" +
+            "}" +
+            "return search(document, null) || [[], null];";
+
+    private final List<By> framePath;
+    private final boolean searchFrames;
+    private final boolean pierceShadowRoots;
+    private List<Integer> lastFrameIndexes;
+    private List<WebElement> lastFrameElements;
+    private WebElement lastShadowHost;
+    private long frameScans;
+
+    QueryLocation(List<By> framePath, boolean searchFrames, boolean pierceShadowRoots) {
+        this.framePath = Collections.unmodifiableList(new ArrayList<>(framePath));
+        this.searchFrames = searchFrames;
+        this.pierceShadowRoots = pierceShadowRoots;
+    }
+
+    QueryLocation withFramePath(By... frames) {
+        return new QueryLocation(Arrays.asList(frames), searchFrames, pierceShadowRoots);
+    }
+
+    QueryLocation withSearchFrames(boolean enabled) {
+        return new QueryLocation(framePath, enabled, pierceShadowRoots);
+    }
+
+    QueryLocation withPierceShadowRoots(boolean enabled) {
+        return new QueryLocation(framePath, searchFrames, enabled);
+    }
+
+    /**
+     * @return A copy with the same settings and nothing remembered
+     */
+    QueryLocation copy() {
+        return new QueryLocation(framePath, searchFrames, pierceShadowRoots);
+    }
+
+    boolean isEnabled() {
+        return !framePath.isEmpty() || searchFrames || pierceShadowRoots;
+    }
+
+    /**
+     * @return true if finding elements switches frames
+     */
+    boolean usesFrames() {
+        return !framePath.isEmpty() || searchFrames;
+    }
+
+    /**
+     * Forget where elements were last found.
+     */
+    void forget() {
+        lastFrameIndexes = null;
+        lastFrameElements = null;
+        lastShadowHost = null;
+    }
+
+    long getFrameScans() {
+        return frameScans;
+    }
+
+    WebElement find(RemoteWebDriver driver, By locator, boolean scriptable) {
+        List<WebElement> elements = findAll(driver, locator, scriptable);
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException(String.format("Unable to locate an element using %s in any frame or shadow root", locator));
+        }
+
+        return elements.get(0);
+    }
+
+    List<WebElement> findAll(RemoteWebDriver driver, By locator, boolean scriptable) {
+        if (null != lastFrameIndexes) {
+            if (switchToFrame(driver, lastFrameIndexes)) {
+                List<WebElement> elements = findInCurrentFrame(driver, locator, scriptable);
+                if (!elements.isEmpty()) {
+                    return elements;
+                }
+            }
+            forget();
+        }
+        if (null != lastFrameElements) {
+            if (switchToFrameElements(driver, lastFrameElements)) {
+                List<WebElement> elements = findInCurrentFrame(driver, locator, scriptable);
+                if (!elements.isEmpty()) {
+                    return elements;
+                }
+            }
+            forget();
+        }
+        if (!framePath.isEmpty()) {
+            frameScans++;
+            driver.switchTo().defaultContent();
+            List<WebElement> frameElements = new ArrayList<>(framePath.size());
+            for (By frame : framePath) {
+                List<WebElement> candidates = driver.findElements(frame);
+                if (candidates.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                try {
+                    driver.switchTo().frame(candidates.get(0));
+                } catch (NoSuchFrameException | StaleElementReferenceException e) {
+                    return Collections.emptyList();
+                }
+                frameElements.add(candidates.get(0));
+            }
+            List<WebElement> elements = findInCurrentFrame(driver, locator, scriptable);
+            if (!elements.isEmpty()) {
+                lastFrameElements = frameElements;
+            }
+            return elements;
+        }
+        if (searchFrames) {
+            frameScans++;
+            driver.switchTo().defaultContent();
+            return scanFrames(driver, locator, scriptable, new ArrayList<>());
+        }
+
+        return findInCurrentFrame(driver, locator, scriptable);
+    }
+
+    private List<WebElement> scanFrames(RemoteWebDriver driver, By locator, boolean scriptable, List<Integer> frameIndexes) {
+        List<WebElement> elements = findInCurrentFrame(driver, locator, scriptable);
+        if (!elements.isEmpty()) {
+            lastFrameIndexes = new ArrayList<>(frameIndexes);
+            return elements;
+        }
+        if (frameIndexes.size() < MAX_FRAME_DEPTH) {
+            int frames = driver.findElements(FRAMES).size();
+            for (int index = 0; index < frames; index++) {
+                try {
+                    driver.switchTo().frame(index);
+                } catch (NoSuchFrameException e) {
+                    continue;
+                }
+                frameIndexes.add(index);
+                elements = scanFrames(driver, locator, scriptable, frameIndexes);
+                if (!elements.isEmpty()) {
+                    return elements;
+                }
+                frameIndexes.remove(frameIndexes.size() - 1);
+                driver.switchTo().parentFrame();
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    private boolean switchToFrame(RemoteWebDriver driver, List<Integer> frameIndexes) {
+        try {
+            driver.switchTo().defaultContent();
+            for (int index : frameIndexes) {
+                driver.switchTo().frame(index);
+            }
+            return true;
+        } catch (NoSuchFrameException e) {
+            return false;
+        }
+    }
+
+    private boolean switchToFrameElements(RemoteWebDriver driver, List<WebElement> frameElements) {
+        try {
+            driver.switchTo().defaultContent();
+            for (WebElement frameElement : frameElements) {
+                driver.switchTo().frame(frameElement);
+            }
+            return true;
+        } catch (NoSuchFrameException | StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<WebElement> findInCurrentFrame(RemoteWebDriver driver, By locator, boolean scriptable) {
+        String[] translated = ScriptLocator.translate(locator);
+        if (!pierceShadowRoots || !scriptable || null == translated || !ScriptLocator.CSS.equals(translated[0])) {
+            return driver.findElements(locator);
+        }
+        Object result;
+        try {
+            result = driver.executeScript(PIERCE_SHADOW_ROOTS, translated[1], lastShadowHost);
+        } catch (StaleElementReferenceException e) {
+            lastShadowHost = null;
+            result = driver.executeScript(PIERCE_SHADOW_ROOTS, translated[1], null);
+        }
+        if (!(result instanceof List) || ((List<?>) result).size() != 2) {
+            return driver.findElements(locator);
+        }
+        List<?> found = (List<?>) result;
+        lastShadowHost = (WebElement) found.get(1);
+
+        return null == found.get(0) ? Collections.emptyList() : (List<WebElement>) found.get(0);
+    }
+}
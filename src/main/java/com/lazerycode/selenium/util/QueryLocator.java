@@ -0,0 +1,51 @@
+package com.lazerycode.selenium.util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes the locators for a Query field of a page object.
+ * <p>
+ * Locators are written as strategy=value strings: id=, css=, xpath=, name=, className=, tagName=, linkText= or
+ * partialLinkText=.  They are checked when your code is compiled, and QueryLocatorProcessor generates a binder class
+ * for the page object (e.g. LoginPage_QueryBinder) that creates the Query objects and assigns the driver without any
+ * reflection.  AssignDriver.initQueryObjects() will use the generated binder automatically.
+ * <p>
+ * Example:
+ * <p>
+ * &#64;QueryLocator(value = "id=username", chrome = "css=#login input[name='user']", android = "xpath=//*[@resource-id='user']")
+ * Query username;
+ * <p>
+ * Annotated fields must not be private or final so that the generated binder can assign them.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface QueryLocator {
+
+    /**
+     * @return The default locator, used if none of the browser specific locators apply
+     */
+    String value() default "";
+
+    String chrome() default "";
+
+    String firefox() default "";
+
+    String safari() default "";
+
+    String edge() default "";
+
+    String internetExplorer() default "";
+
+    /**
+     * @return The locator used with an Appium driver in an Android native context
+     */
+    String android() default "";
+
+    /**
+     * @return The locator used with an Appium driver in an iOS native context
+     */
+    String ios() default "";
+}
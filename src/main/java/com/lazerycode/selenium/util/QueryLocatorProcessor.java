@@ -0,0 +1,360 @@
+package com.lazerycode.selenium.util;
+
+import io.appium.java_client.remote.MobilePlatform;
+import org.openqa.selenium.remote.BrowserType;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a QueryBinder for every page object class that has (or inherits) fields annotated with QueryLocator.
+ * <p>
+ * The generated binder is called &lt;PageObject&gt;_QueryBinder and lives in the same package as the page object.  It
+ * creates the annotated Query objects and assigns the driver to every Query, array of Query objects, Iterable of
+ * Query objects and nested page object component through direct field access.  Locators are validated at compile time.
+ * <p>
+ * The processor is opt-in: the main jar does not register it, so existing page objects compile as they always have.
+ * Add the jar with the "processor" classifier (which registers it in META-INF/services) to the compiler's annotation
+ * processor path, or name this class with javac's -processor option.
+ */
+@SupportedAnnotationTypes("com.lazerycode.selenium.util.QueryLocator")
+public class QueryLocatorProcessor extends AbstractProcessor {
+
+    static final String BINDER_SUFFIX = "_QueryBinder";
+    private static final String QUERY = "com.lazerycode.selenium.util.Query";
+    private static final String[] EXCLUDED_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun.", "org.openqa.selenium.", "io.appium."};
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> pageObjects = new LinkedHashSet<>();
+        for (Element annotated : roundEnv.getElementsAnnotatedWith(QueryLocator.class)) {
+            pageObjects.add((TypeElement) annotated.getEnclosingElement());
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            collectSubclasses(type, pageObjects);
+        }
+        for (TypeElement pageObject : pageObjects) {
+            if (generated.add(pageObject.getQualifiedName().toString())) {
+                generateBinder(pageObject);
+            }
+        }
+
+        return true;
+    }
+
+    private void collectSubclasses(TypeElement type, Set<TypeElement> pageObjects) {
+        if (type.getKind() == ElementKind.CLASS && hasAnnotatedFields(type)) {
+            pageObjects.add(type);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            collectSubclasses(nested, pageObjects);
+        }
+    }
+
+    private boolean hasAnnotatedFields(TypeElement type) {
+        for (TypeElement current : hierarchyOf(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (null != field.getAnnotation(QueryLocator.class)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generateBinder(TypeElement pageObject) {
+        String packageName = packageOf(pageObject);
+        String binderName = binderSimpleName(pageObject);
+        if (!isAccessible(pageObject, packageName)) {
+            error(pageObject, "Page objects with @QueryLocator fields must not be private");
+            return;
+        }
+        StringBuilder body = new StringBuilder();
+        boolean valid = true;
+        for (TypeElement current : hierarchyOf(pageObject)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                valid &= bindField(pageObject, field, packageName, body);
+            }
+        }
+        if (!valid) {
+            return;
+        }
+
+        String pageObjectType = typeName(pageObject);
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n * Generated by ").append(QueryLocatorProcessor.class.getName()).append(", do not edit.\n */\n")
+                .append("public final class ").append(binderName).append(" implements com.lazerycode.selenium.util.QueryBinder<")
+                .append(pageObjectType).append("> {\n\n")
+                .append("    @Override\n")
+                .append("    public void bind(").append(pageObjectType).append(" pageObject, org.openqa.selenium.remote.RemoteWebDriver driver) {\n")
+                .append(body)
+                .append("    }\n")
+                .append("}\n");
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, pageObject).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            error(pageObject, "Unable to generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Append the code that binds one field.
+     *
+     * @return false if an error was reported
+     */
+    private boolean bindField(TypeElement pageObject, VariableElement field, String packageName, StringBuilder body) {
+        QueryLocator locator = field.getAnnotation(QueryLocator.class);
+        TypeMirror type = field.asType();
+        String kind = kindOf(type);
+        if (null == locator && null == kind) {
+            return true;
+        }
+        if (!isAccessible(field, packageName)) {
+            error(field, "Query fields of page objects with @QueryLocator fields must be accessible from " + binderSimpleName(pageObject) + ", they must not be private");
+            return false;
+        }
+        String reference = (field.getModifiers().contains(Modifier.STATIC) ? typeName((TypeElement) field.getEnclosingElement()) : "pageObject") + "." + field.getSimpleName();
+        if (null != locator) {
+            if (!processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(type), queryType())) {
+                error(field, "@QueryLocator can only be used on fields of type Query");
+                return false;
+            }
+            if (field.getModifiers().contains(Modifier.FINAL)) {
+                error(field, "@QueryLocator fields must not be final");
+                return false;
+            }
+            String query = newQuery(field, locator);
+            if (null == query) {
+                return false;
+            }
+            body.append("        if (null == ").append(reference).append(") {\n")
+                    .append("            ").append(reference).append(" = ").append(query).append(";\n")
+                    .append("        }\n");
+        }
+        switch (null == kind ? "query" : kind) {
+            case "query":
+                body.append("        if (null != ").append(reference).append(") {\n")
+                        .append("            ").append(reference).append(".usingDriver(driver);\n")
+                        .append("        }\n");
+                break;
+            case "array":
+            case "iterable":
+                String iterable = kind.equals("array") ? reference : "((java.lang.Iterable<? extends " + QUERY + ">) " + reference + ")";
+                body.append("        if (null != ").append(reference).append(") {\n")
+                        .append("            for (").append(QUERY).append(" query : ").append(iterable).append(") {\n")
+                        .append("                if (null != query) {\n")
+                        .append("                    query.usingDriver(driver);\n")
+                        .append("                }\n")
+                        .append("            }\n")
+                        .append("        }\n");
+                break;
+            default:
+                body.append("        if (null != ").append(reference).append(") {\n")
+                        .append("            com.lazerycode.selenium.util.AssignDriver.initQueryObjects(").append(reference).append(", driver);\n")
+                        .append("        }\n");
+        }
+
+        return true;
+    }
+
+    private String newQuery(VariableElement field, QueryLocator locator) {
+        Map<String, String> specific = new LinkedHashMap<>();
+        specific.put(BrowserType.CHROME, locator.chrome());
+        specific.put(BrowserType.FIREFOX, locator.firefox());
+        specific.put(BrowserType.SAFARI, locator.safari());
+        specific.put(BrowserType.EDGE, locator.edge());
+        specific.put(BrowserType.IE, locator.internetExplorer());
+        specific.put(MobilePlatform.ANDROID, locator.android());
+        specific.put(MobilePlatform.IOS, locator.ios());
+        StringBuilder query = new StringBuilder("new " + QUERY + "()");
+        boolean hasLocator = false;
+        try {
+            if (!locator.value().isEmpty()) {
+                query.append(".defaultLocator(").append(LocatorSpec.parse(locator.value()).toJavaSource()).append(")");
+                hasLocator = true;
+            }
+            for (Map.Entry<String, String> entry : specific.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    query.append(".addSpecificLocator(\"").append(entry.getKey()).append("\", ")
+                            .append(LocatorSpec.parse(entry.getValue()).toJavaSource()).append(")");
+                    hasLocator = true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            error(field, e.getMessage());
+            return null;
+        }
+        if (!hasLocator) {
+            error(field, "@QueryLocator must specify at least one locator");
+            return null;
+        }
+
+        return query.toString();
+    }
+
+    /**
+     * @return "query", "array", "iterable" or "component" for fields that can hold Query objects, otherwise null
+     */
+    private String kindOf(TypeMirror type) {
+        if (isQuery(type)) {
+            return "query";
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isQuery(((ArrayType) type).getComponentType()) ? "array" : null;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        TypeMirror iterable = processingEnv.getTypeUtils().erasure(processingEnv.getElementUtils().getTypeElement("java.lang.Iterable").asType());
+        if (processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), iterable)) {
+            if (declared.getTypeArguments().size() != 1) {
+                return null;
+            }
+            TypeMirror element = declared.getTypeArguments().get(0);
+            if (element instanceof WildcardType) {
+                element = ((WildcardType) element).getExtendsBound();
+            }
+            return null != element && isQuery(element) ? "iterable" : null;
+        }
+
+        return holdsQueries((TypeElement) declared.asElement(), new HashSet<>()) ? "component" : null;
+    }
+
+    private boolean holdsQueries(TypeElement type, Set<String> visiting) {
+        String name = type.getQualifiedName().toString();
+        for (String excluded : EXCLUDED_PACKAGES) {
+            if (name.startsWith(excluded)) {
+                return false;
+            }
+        }
+        if (type.getKind() == ElementKind.ENUM) {
+            return false;
+        }
+        if (type.getKind() == ElementKind.INTERFACE || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return true;
+        }
+        if (!visiting.add(name)) {
+            return false;
+        }
+        for (TypeElement current : hierarchyOf(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (null != field.getAnnotation(QueryLocator.class) || null != kindOf(field.asType(), visiting)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private String kindOf(TypeMirror type, Set<String> visiting) {
+        if (type.getKind() == TypeKind.DECLARED && !isQuery(type)) {
+            TypeMirror iterable = processingEnv.getTypeUtils().erasure(processingEnv.getElementUtils().getTypeElement("java.lang.Iterable").asType());
+            if (!processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), iterable)) {
+                return holdsQueries((TypeElement) ((DeclaredType) type).asElement(), visiting) ? "component" : null;
+            }
+        }
+        return kindOf(type);
+    }
+
+    private boolean isQuery(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), queryType());
+    }
+
+    private TypeMirror queryType() {
+        return processingEnv.getElementUtils().getTypeElement(QUERY).asType();
+    }
+
+    private List<TypeElement> hierarchyOf(TypeElement type) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement current = type; null != current; ) {
+            if (current.getQualifiedName().contentEquals("java.lang.Object")) {
+                break;
+            }
+            hierarchy.add(current);
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        return hierarchy;
+    }
+
+    private boolean isAccessible(Element element, String packageName) {
+        for (Element current = element; null != current && current.getKind() != ElementKind.PACKAGE; current = current.getEnclosingElement()) {
+            Set<Modifier> modifiers = current.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC) && !packageOf(current).equals(packageName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String packageOf(Element element) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(element);
+        return packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+    }
+
+    /**
+     * @return The name of the binder for a page object, e.g. Outer_Inner_QueryBinder for the nested class Outer.Inner
+     */
+    private String binderSimpleName(TypeElement pageObject) {
+        String packageName = packageOf(pageObject);
+        String qualifiedName = pageObject.getQualifiedName().toString();
+        String simpleNames = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+
+        return simpleNames.replace('.', '_') + BINDER_SUFFIX;
+    }
+
+    private String typeName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getQualifiedName());
+        if (!type.getTypeParameters().isEmpty()) {
+            name.append('<');
+            for (int i = 0; i < type.getTypeParameters().size(); i++) {
+                name.append(i == 0 ? "?" : ", ?");
+            }
+            name.append('>');
+        }
+        return name.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,248 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A QueryListener that records lookup counts, failures and a latency histogram for every locator/browser combination.
+ * <p>
+ * Recording is lock free.  Latencies are kept in log-linear buckets (8 buckets per power of two), so percentiles are
+ * accurate to within roughly 12%.
+ * <p>
+ * Example:
+ * <p>
+ * QueryMetricsRecorder recorder = new QueryMetricsRecorder();
+ * QueryListeners.register(recorder);
+ * ...
+ * System.out.println(recorder.toCsv());
+ */
+public class QueryMetricsRecorder implements QueryListener {
+
+    private static final String[] CSV_COLUMNS = {"locator", "browserType", "lookups", "failures", "elements", "p50Millis", "p90Millis", "p99Millis", "maxMillis", "failureTypes"};
+
+    private final ConcurrentMap<By, ConcurrentMap<String, LocatorMetrics>> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void onFind(Query query, By locator, String browserType, long durationNanos, int elementCount, Throwable failure) {
+        String type = null == browserType ? "" : browserType;
+        metrics.computeIfAbsent(locator, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(type, key -> new LocatorMetrics(locator, type))
+                .record(durationNanos, elementCount, failure);
+    }
+
+    /**
+     * @return A snapshot of the metrics recorded so far, slowest p99 first
+     */
+    public List<LocatorMetrics> getMetrics() {
+        List<LocatorMetrics> snapshot = new ArrayList<>();
+        for (Map<String, LocatorMetrics> byBrowserType : metrics.values()) {
+            snapshot.addAll(byBrowserType.values());
+        }
+        snapshot.sort(Comparator.comparingLong((LocatorMetrics locatorMetrics) -> locatorMetrics.percentileNanos(99)).reversed());
+
+        return snapshot;
+    }
+
+    /**
+     * Throw away everything recorded so far.
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    /**
+     * @return The recorded metrics as CSV, with a header row
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder(String.join(",", CSV_COLUMNS)).append('\n');
+        for (LocatorMetrics locatorMetrics : getMetrics()) {
+            csv.append(csvValue(locatorMetrics.getLocator().toString())).append(',')
+                    .append(csvValue(locatorMetrics.getBrowserType())).append(',')
+                    .append(locatorMetrics.getLookups()).append(',')
+                    .append(locatorMetrics.getFailures()).append(',')
+                    .append(locatorMetrics.getElementsFound()).append(',')
+                    .append(millis(locatorMetrics.percentileNanos(50))).append(',')
+                    .append(millis(locatorMetrics.percentileNanos(90))).append(',')
+                    .append(millis(locatorMetrics.percentileNanos(99))).append(',')
+                    .append(millis(locatorMetrics.getMaxNanos())).append(',')
+                    .append(csvValue(String.join(" ", locatorMetrics.getFailureTypes().keySet()))).append('\n');
+        }
+
+        return csv.toString();
+    }
+
+    /**
+     * @return The recorded metrics as a JSON array
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("[");
+        List<LocatorMetrics> snapshot = getMetrics();
+        for (int i = 0; i < snapshot.size(); i++) {
+            LocatorMetrics locatorMetrics = snapshot.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("  {\"locator\": ").append(jsonValue(locatorMetrics.getLocator().toString()))
+                    .append(", \"browserType\": ").append(jsonValue(locatorMetrics.getBrowserType()))
+                    .append(", \"lookups\": ").append(locatorMetrics.getLookups())
+                    .append(", \"failures\": ").append(locatorMetrics.getFailures())
+                    .append(", \"elements\": ").append(locatorMetrics.getElementsFound())
+                    .append(", \"p50Millis\": ").append(millis(locatorMetrics.percentileNanos(50)))
+                    .append(", \"p90Millis\": ").append(millis(locatorMetrics.percentileNanos(90)))
+                    .append(", \"p99Millis\": ").append(millis(locatorMetrics.percentileNanos(99)))
+                    .append(", \"maxMillis\": ").append(millis(locatorMetrics.getMaxNanos()))
+                    .append(", \"failureTypes\": {");
+            int failureType = 0;
+            for (Map.Entry<String, Long> failure : locatorMetrics.getFailureTypes().entrySet()) {
+                json.append(failureType++ == 0 ? "" : ", ").append(jsonValue(failure.getKey())).append(": ").append(failure.getValue());
+            }
+            json.append("}}");
+        }
+
+        return json.append(snapshot.isEmpty() ? "]" : "\n]").toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    private static String csvValue(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String jsonValue(String value) {
+        StringBuilder escaped = new StringBuilder("\"");
+        for (char character : value.toCharArray()) {
+            if (character == '"' || character == '\\') {
+                escaped.append('\\').append(character);
+            } else if (character < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) character));
+            } else {
+                escaped.append(character);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    /**
+     * The metrics recorded for a single locator on a single browser type.
+     */
+    public static class LocatorMetrics {
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final By locator;
+        private final String browserType;
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder elementsFound = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        private final ConcurrentMap<String, LongAdder> failureTypes = new ConcurrentHashMap<>();
+
+        LocatorMetrics(By locator, String browserType) {
+            this.locator = locator;
+            this.browserType = browserType;
+        }
+
+        void record(long durationNanos, int elementCount, Throwable failure) {
+            long duration = Math.max(0, durationNanos);
+            lookups.increment();
+            elementsFound.add(elementCount);
+            maxNanos.accumulate(duration);
+            histogram.incrementAndGet(bucketFor(duration));
+            if (null != failure) {
+                failures.increment();
+                failureTypes.computeIfAbsent(failure.getClass().getName(), key -> new LongAdder()).increment();
+            }
+        }
+
+        static int bucketFor(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long highestValueIn(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long subBucket = bucket % SUB_BUCKETS;
+            long lowest = (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+            return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        /**
+         * @param percentile A percentile between 0 and 100
+         * @return The latency at that percentile in nanoseconds, never more than the highest latency recorded
+         */
+        public long percentileNanos(double percentile) {
+            long total = 0;
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestValueIn(i), getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+
+        public By getLocator() {
+            return locator;
+        }
+
+        public String getBrowserType() {
+            return browserType;
+        }
+
+        public long getLookups() {
+            return lookups.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getElementsFound() {
+            return elementsFound.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * @return The number of failures seen for each exception class name
+         */
+        public Map<String, Long> getFailureTypes() {
+            Map<String, Long> snapshot = new TreeMap<>();
+            failureTypes.forEach((type, count) -> snapshot.put(type, count.sum()));
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.lazerycode.selenium.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The text of a table, stored a column at a time, see Query.table().
+ * <p>
+ * Rows that have fewer cells than the widest row are padded with null.
+ */
+public class QueryTable {
+
+    private final List<List<String>> columns;
+    private final int rowCount;
+
+    QueryTable(List<List<String>> columns, int rowCount) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @param rows The text of each cell, a row at a time
+     * @return A QueryTable holding the supplied rows
+     */
+    static QueryTable fromRows(List<List<String>> rows) {
+        List<List<String>> columns = new ArrayList<>();
+        for (int row = 0; row < rows.size(); row++) {
+            List<String> cells = rows.get(row);
+            for (int column = 0; column < cells.size(); column++) {
+                if (column == columns.size()) {
+                    columns.add(new ArrayList<>(Collections.nCopies(rows.size(), null)));
+                }
+                columns.get(column).set(row, cells.get(column));
+            }
+        }
+
+        return new QueryTable(columns, rows.size());
+    }
+
+    /**
+     * @param chunks Tables holding consecutive rows of the same table
+     * @return A single QueryTable holding every row
+     */
+    static QueryTable concat(List<QueryTable> chunks) {
+        int rows = 0;
+        int width = 0;
+        for (QueryTable chunk : chunks) {
+            rows += chunk.rowCount;
+            width = Math.max(width, chunk.getColumnCount());
+        }
+        List<List<String>> columns = new ArrayList<>(width);
+        for (int column = 0; column < width; column++) {
+            List<String> values = new ArrayList<>(rows);
+            for (QueryTable chunk : chunks) {
+                if (column < chunk.getColumnCount()) {
+                    values.addAll(chunk.getColumn(column));
+                } else {
+                    values.addAll(Collections.nCopies(chunk.rowCount, null));
+                }
+            }
+            columns.add(values);
+        }
+
+        return new QueryTable(columns, rows);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    /**
+     * @param column The index of the column
+     * @return The text of every cell in the column
+     */
+    public List<String> getColumn(int column) {
+        return Collections.unmodifiableList(columns.get(column));
+    }
+
+    /**
+     * @param row The index of the row
+     * @return The text of every cell in the row
+     */
+    public List<String> getRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + rowCount);
+        }
+        return new AbstractList<String>() {
+            @Override
+            public String get(int column) {
+                return columns.get(column).get(row);
+            }
+
+            @Override
+            public int size() {
+                return columns.size();
+            }
+        };
+    }
+
+    /**
+     * @param row    The index of the row
+     * @param column The index of the column
+     * @return The text of the cell
+     */
+    public String getCell(int row, int column) {
+        return columns.get(column).get(row);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryTable{rows=%d, columns=%d}", rowCount, columns.size());
+    }
+}
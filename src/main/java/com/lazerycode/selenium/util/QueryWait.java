@@ -0,0 +1,176 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for a Query to reach a given state.
+ * <p>
+ * Where possible the wait happens inside the browser: an async script watches the DOM with a MutationObserver and calls
+ * back as soon as the condition holds, so a wait only costs a single driver call.  If the locator cannot be run as a
+ * script, or the driver does not support async scripts, the driver is polled with an exponential backoff instead.
+ */
+final class QueryWait {
+
+    enum Condition {
+        PRESENT("present"),
+        VISIBLE("visible"),
+        GONE("gone"),
+        COUNT("count");
+
+        private final String description;
+
+        Condition(String description) {
+            this.description = description;
+        }
+    }
+
+    private static final Object NOT_SUPPORTED = new Object();
+    private static final Object NOT_MET = new Object();
+    private static final long INITIAL_POLL_INTERVAL_MILLIS = 50;
+    private static final long MAXIMUM_POLL_INTERVAL_MILLIS = 1000;
+    private static final long MINIMUM_USEFUL_SCRIPT_MILLIS = 1000;
+    private static final String AWAIT_CONDITION = ScriptLocator.LOCATE_FUNCTION +
+            "var strategy = arguments[0], value = arguments[1], root = arguments[2], condition = arguments[3];" +
+            "var expected = arguments[4], timeout = arguments[5], callback = arguments[arguments.length - 1];" +
+            "var visible = function (element) {" +
+            "  var style = window.getComputedStyle(element);" +
+            "  return style.display !== 'none' && style.visibility !== 'hidden' && element.getClientRects().length > 0;" +
+            "};" +
+            "var check = function () {" +
+            "  var found = locate(strategy, value, root);" +
+            "  if (condition === 'present') return found.length > 0 ? found[0] : undefined;" +
+            "  if (condition === 'visible') return found.length > 0 && visible(found[0]) ? found[0] : undefined;" +
+            "  if (condition === 'gone') return found.length === 0 ? true : undefined;" +
+            "  return found.length === expected ? found : undefined;" +
+            "};" +
+            "var initial = check();" +
+            "if (initial !== undefined) {" +
+            "  callback({met: true, value: initial});" +
+            "  return;" +
+            "}" +
+            "var observer, interval, timer;" +
+            "var finish = function (outcome) {" +
+            "  observer.disconnect();" +
+            "  clearInterval(interval);" +
+            "  clearTimeout(timer);" +
+            "  callback(outcome);" +
+            "};" +
+            "var recheck = function () {" +
+            "  var result = check();" +
+            "  if (result !== undefined) finish({met: true, value: result});" +
+            "};" +
+            "observer = new MutationObserver(recheck);" +
+            "observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+            "interval = setInterval(recheck, 100);" +
+            "timer = setTimeout(function () { finish({met: false}); }, timeout);";
+
+    private QueryWait() {
+    }
+
+    /**
+     * Wait for the supplied Query to meet a condition.
+     *
+     * @param query     The Query to wait for
+     * @param condition The condition to wait for
+     * @param expected  The number of elements expected when waiting for Condition.COUNT
+     * @param timeout   How long to wait before giving up
+     * @return The WebElement for PRESENT/VISIBLE, a List of WebElements for COUNT, or null for GONE
+     * @throws TimeoutException if the condition was not met in time
+     */
+    static Object await(Query query, Condition condition, int expected, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        if (query.canUseLocatorScripts()) {
+            Object result = awaitInBrowser(query, condition, expected, deadline);
+            if (result != NOT_SUPPORTED) {
+                return checkConditionWasMet(result, query, condition, expected, timeout);
+            }
+        }
+
+        return checkConditionWasMet(poll(query, condition, expected, deadline), query, condition, expected, timeout);
+    }
+
+    private static Object awaitInBrowser(Query query, Condition condition, int expected, long deadline) {
+        long remaining;
+        while ((remaining = millisUntil(deadline)) > 0) {
+            long started = System.nanoTime();
+            try {
+                Object outcome = query.driver().executeAsyncScript(AWAIT_CONDITION, query.locatorScriptArguments(condition.description, expected, remaining));
+                if (outcome instanceof Map && Boolean.TRUE.equals(((Map<?, ?>) outcome).get("met"))) {
+                    return ((Map<?, ?>) outcome).get("value");
+                }
+            } catch (ScriptTimeoutException e) {
+                if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < MINIMUM_USEFUL_SCRIPT_MILLIS) {
+                    return NOT_SUPPORTED;
+                }
+            } catch (StaleElementReferenceException e) {
+                // Either the element we are searching inside, or the result, went stale; look the search root up again and retry
+                query.searchRootWentStale();
+            } catch (WebDriverException e) {
+                return NOT_SUPPORTED;
+            }
+        }
+
+        return NOT_MET;
+    }
+
+    private static Object poll(Query query, Condition condition, int expected, long deadline) {
+        long interval = INITIAL_POLL_INTERVAL_MILLIS;
+        while (true) {
+            Object result = checkWithDriver(query, condition, expected);
+            if (result != NOT_MET) {
+                return result;
+            }
+            long remaining = millisUntil(deadline);
+            if (remaining <= 0) {
+                return NOT_MET;
+            }
+            try {
+                Thread.sleep(Math.min(interval, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException(e);
+            }
+            interval = Math.min(interval * 2, MAXIMUM_POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    private static Object checkWithDriver(Query query, Condition condition, int expected) {
+        List<WebElement> found = query.findElementsUsingDriver();
+        switch (condition) {
+            case PRESENT:
+                return found.isEmpty() ? NOT_MET : found.get(0);
+            case VISIBLE:
+                try {
+                    return !found.isEmpty() && found.get(0).isDisplayed() ? found.get(0) : NOT_MET;
+                } catch (StaleElementReferenceException e) {
+                    return NOT_MET;
+                }
+            case GONE:
+                return found.isEmpty() ? Boolean.TRUE : NOT_MET;
+            default:
+                return found.size() == expected ? found : NOT_MET;
+        }
+    }
+
+    private static Object checkConditionWasMet(Object result, Query query, Condition condition, int expected, Duration timeout) {
+        if (result == NOT_MET) {
+            String state = condition == Condition.COUNT ? String.format("matching %d elements", expected) : condition.description;
+            throw new TimeoutException(String.format("Timed out after %d ms waiting for '%s' to be %s", timeout.toMillis(), query.by(), state));
+        }
+
+        return condition == Condition.GONE ? null : result;
+    }
+
+    private static long millisUntil(long deadline) {
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+}
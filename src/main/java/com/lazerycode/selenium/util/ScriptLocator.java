@@ -0,0 +1,83 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+/**
+ * Translates By objects into something that can be located by a script running inside the browser.
+ * <p>
+ * Only locators with an exact in-browser equivalent are translated, everything else returns null and has to be located
+ * through the driver as normal.
+ */
+final class ScriptLocator {
+
+    static final String CSS = "css";
+    static final String XPATH = "xpath";
+
+    /**
+     * A JavaScript function that returns an array of every element matched by a translated locator.
+     * It takes the strategy, the value and an optional root element/document to search from.
+     */
+    static final String LOCATE_FUNCTION = "var locate = function (strategy, value, root) {" +
+            "  root = root || document;" +
+            "  if (strategy === 'xpath') {" +
+            "    var doc = root.ownerDocument || root;" +
+            "    var result = doc.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "    var found = [];" +
+            "    for (var i = 0; i < result.snapshotLength; i++) {" +
+            "      found.push(result.snapshotItem(i));" +
+            "    }" +
+            "    return found;" +
+            "  }" +
+            "  return Array.prototype.slice.call(root.querySelectorAll(value));" +
+            "};";
+
+    private ScriptLocator() {
+    }
+
+    /**
+     * @param locator The By object to translate
+     * @return A two element array holding the strategy and value, or null if the locator cannot be translated
+     */
+    static String[] translate(By locator) {
+        if (locator instanceof By.ByCssSelector) {
+            return new String[]{CSS, valueOf(locator, "By.cssSelector: ")};
+        }
+        if (locator instanceof By.ByXPath) {
+            return new String[]{XPATH, valueOf(locator, "By.xpath: ")};
+        }
+        if (locator instanceof By.ById) {
+            return new String[]{CSS, attributeSelector("id", valueOf(locator, "By.id: "))};
+        }
+        if (locator instanceof By.ByName) {
+            return new String[]{CSS, attributeSelector("name", valueOf(locator, "By.name: "))};
+        }
+        if (locator instanceof By.ByClassName) {
+            String className = valueOf(locator, "By.className: ");
+            if (className.trim().isEmpty() || className.trim().contains(" ")) {
+                return null;
+            }
+            return new String[]{CSS, "[class~=" + quote(className.trim()) + "]"};
+        }
+        if (locator instanceof By.ByTagName) {
+            String tagName = valueOf(locator, "By.tagName: ");
+            return tagName.matches("[A-Za-z][A-Za-z0-9_-]*") ? new String[]{CSS, tagName} : null;
+        }
+        return null;
+    }
+
+    /**
+     * The value a standard By object was created with, extracted from its toString() representation.
+     */
+    static String valueOf(By locator, String prefix) {
+        String description = locator.toString();
+        return description.startsWith(prefix) ? description.substring(prefix.length()) : description;
+    }
+
+    static String attributeSelector(String attribute, String value) {
+        return "*[" + attribute + "=" + quote(value) + "]";
+    }
+
+    static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\a ") + "\"";
+    }
+}
@@ -0,0 +1,137 @@
+package com.lazerycode.selenium.util;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.openqa.selenium.remote.CapabilityType.BROWSER_NAME;
+import static org.openqa.selenium.remote.CapabilityType.SUPPORTS_JAVASCRIPT;
+
+/**
+ * A stand-in for a RemoteWebDriver that finds elements in a saved HTML snapshot instead of a real browser.
+ * <p>
+ * Query objects can use it just like any other driver (usingDriver(), by(), findAll() etc), so page objects can be
+ * checked against snapshots of each browser's DOM without starting a browser.  By.id, By.cssSelector, By.xpath,
+ * By.name, By.className, By.tagName, By.linkText and By.partialLinkText are supported.  The snapshot is read only,
+ * cannot run JavaScript and has no layout, see SnapshotValidator to check a lot of Query objects at once.
+ * <p>
+ * This needs org.jsoup:jsoup on the classpath.
+ */
+public class SnapshotDriver extends RemoteWebDriver {
+
+    private final Capabilities capabilities;
+    private final Document document;
+    private final SnapshotLocator locator;
+
+    /**
+     * @param capabilities The capabilities of the browser the snapshot was taken from, used to pick browser specific locators
+     * @param html         The page source saved from the browser
+     */
+    public SnapshotDriver(Capabilities capabilities, String html) {
+        DesiredCapabilities snapshotCapabilities = new DesiredCapabilities(capabilities);
+        snapshotCapabilities.setCapability(SUPPORTS_JAVASCRIPT, false);
+        this.capabilities = snapshotCapabilities;
+        this.document = Jsoup.parse(html);
+        this.locator = new SnapshotLocator(document);
+    }
+
+    /**
+     * @param browserName A BrowserType (or MobileBrowserType) describing the browser the snapshot was taken from
+     * @param html        The page source saved from the browser
+     * @return A SnapshotDriver for the supplied page source
+     */
+    public static SnapshotDriver of(String browserName, String html) {
+        DesiredCapabilities capabilities = new DesiredCapabilities();
+        capabilities.setCapability(BROWSER_NAME, browserName);
+
+        return new SnapshotDriver(capabilities, html);
+    }
+
+    /**
+     * @param browserName A BrowserType (or MobileBrowserType) describing the browser the snapshot was taken from
+     * @param snapshot    A UTF-8 file holding the page source saved from the browser
+     * @return A SnapshotDriver for the supplied page source
+     * @throws IOException if the file cannot be read
+     */
+    public static SnapshotDriver of(String browserName, Path snapshot) throws IOException {
+        return of(browserName, new String(Files.readAllBytes(snapshot), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Capabilities getCapabilities() {
+        return capabilities;
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return SnapshotElement.first(this, locator.find(document, by), by);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return SnapshotElement.wrap(this, locator.find(document, by));
+    }
+
+    WebElement findElement(Element root, By by) {
+        return SnapshotElement.first(this, locator.find(root, by), by);
+    }
+
+    List<WebElement> findElements(Element root, By by) {
+        return SnapshotElement.wrap(this, locator.find(root, by));
+    }
+
+    @Override
+    public String getPageSource() {
+        return document.outerHtml();
+    }
+
+    @Override
+    public String getTitle() {
+        return document.title();
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return document.location();
+    }
+
+    @Override
+    public void get(String url) {
+        throw new UnsupportedCommandException("Snapshots cannot navigate!");
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        throw new UnsupportedCommandException("Snapshots cannot run JavaScript!");
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        throw new UnsupportedCommandException("Snapshots cannot run JavaScript!");
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SnapshotDriver{%s}", capabilities.getBrowserName());
+    }
+}
@@ -0,0 +1,182 @@
+package com.lazerycode.selenium.util;
+
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A read only WebElement backed by an element in an HTML snapshot, see SnapshotDriver.
+ */
+final class SnapshotElement implements WebElement, WrapsDriver {
+
+    private final SnapshotDriver driver;
+    private final Element element;
+
+    SnapshotElement(SnapshotDriver driver, Element element) {
+        this.driver = driver;
+        this.element = element;
+    }
+
+    Element element() {
+        return element;
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return driver.findElements(element, by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return driver.findElement(element, by);
+    }
+
+    @Override
+    public String getTagName() {
+        return element.tagName();
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return element.hasAttr(name) ? element.attr(name) : null;
+    }
+
+    @Override
+    public String getText() {
+        return isDisplayed() ? element.text() : "";
+    }
+
+    @Override
+    public boolean isSelected() {
+        return element.hasAttr("selected") || element.hasAttr("checked");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !element.hasAttr("disabled");
+    }
+
+    /**
+     * A snapshot has no layout, so an element is treated as displayed unless it, or one of its ancestors, is hidden by
+     * a hidden attribute, an inline display:none/visibility:hidden style, or is a hidden input.
+     */
+    @Override
+    public boolean isDisplayed() {
+        if (element.tagName().equals("input") && element.attr("type").equalsIgnoreCase("hidden")) {
+            return false;
+        }
+        for (Element current = element; null != current; current = current.parent()) {
+            String style = current.attr("style").replace(" ", "").toLowerCase(Locale.ENGLISH);
+            if (current.hasAttr("hidden") || style.contains("display:none") || style.contains("visibility:hidden")) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void click() {
+        throw readOnly();
+    }
+
+    @Override
+    public void submit() {
+        throw readOnly();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        throw readOnly();
+    }
+
+    @Override
+    public void clear() {
+        throw readOnly();
+    }
+
+    @Override
+    public Point getLocation() {
+        throw noLayout();
+    }
+
+    @Override
+    public Dimension getSize() {
+        throw noLayout();
+    }
+
+    @Override
+    public Rectangle getRect() {
+        throw noLayout();
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        throw noLayout();
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        throw noLayout();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Snapshots are read only!");
+    }
+
+    private static UnsupportedCommandException noLayout() {
+        return new UnsupportedCommandException("Snapshots do not have a layout!");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SnapshotElement that = (SnapshotElement) o;
+        return element == that.element;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(element);
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotElement{" + element.cssSelector() + "}";
+    }
+
+    static List<WebElement> wrap(SnapshotDriver driver, List<Element> elements) {
+        List<WebElement> wrapped = new ArrayList<>(elements.size());
+        for (Element element : elements) {
+            wrapped.add(new SnapshotElement(driver, element));
+        }
+
+        return wrapped;
+    }
+
+    static WebElement first(SnapshotDriver driver, List<Element> elements, By by) {
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException(String.format("Unable to locate an element using '%s' in the snapshot", by));
+        }
+
+        return new SnapshotElement(driver, elements.get(0));
+    }
+}
@@ -0,0 +1,144 @@
+package com.lazerycode.selenium.util;
+
+import org.jsoup.helper.W3CDom;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Selector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates standard By objects against a parsed HTML snapshot.
+ * <p>
+ * CSS selectors are evaluated by jsoup, XPath is evaluated by the JDK against a W3C copy of the snapshot that is only
+ * built the first time an XPath locator is used.  XPath evaluation is synchronised because the W3C DOM is not thread
+ * safe, everything else can be evaluated from any number of threads at once.
+ */
+final class SnapshotLocator {
+
+    private final Document document;
+    private W3CDom w3cDom;
+    private org.w3c.dom.Document w3cDocument;
+    private Map<Element, Node> w3cNodes;
+
+    SnapshotLocator(Document document) {
+        this.document = document;
+    }
+
+    /**
+     * @param root    The document, or an element to search inside (the element itself is never matched)
+     * @param locator The locator to evaluate
+     * @return Every element matched by the locator, in document order
+     */
+    List<Element> find(Element root, By locator) {
+        if (locator instanceof By.ByCssSelector) {
+            return select(root, ScriptLocator.valueOf(locator, "By.cssSelector: "));
+        }
+        if (locator instanceof By.ByXPath) {
+            return selectXpath(root, ScriptLocator.valueOf(locator, "By.xpath: "));
+        }
+        if (locator instanceof By.ById) {
+            String id = ScriptLocator.valueOf(locator, "By.id: ");
+            return filter(root, element -> id.equals(element.id()));
+        }
+        if (locator instanceof By.ByName) {
+            String name = ScriptLocator.valueOf(locator, "By.name: ");
+            return filter(root, element -> element.hasAttr("name") && name.equals(element.attr("name")));
+        }
+        if (locator instanceof By.ByClassName) {
+            String className = ScriptLocator.valueOf(locator, "By.className: ").trim();
+            if (className.isEmpty() || className.contains(" ")) {
+                throw new InvalidSelectorException("Compound class names not permitted: " + className);
+            }
+            return filter(root, element -> element.classNames().contains(className));
+        }
+        if (locator instanceof By.ByTagName) {
+            String tagName = ScriptLocator.valueOf(locator, "By.tagName: ");
+            return filter(root, element -> element.tagName().equalsIgnoreCase(tagName));
+        }
+        if (locator instanceof FallbackLocator) {
+            for (By candidate : ((FallbackLocator) locator).getLocators()) {
+                List<Element> found = find(root, candidate);
+                if (!found.isEmpty()) {
+                    return found;
+                }
+            }
+            return Collections.emptyList();
+        }
+        if (locator instanceof By.ByLinkText) {
+            String linkText = ScriptLocator.valueOf(locator, "By.linkText: ");
+            return filter(root, element -> element.tagName().equals("a") && element.text().trim().equals(linkText.trim()));
+        }
+        if (locator instanceof By.ByPartialLinkText) {
+            String linkText = ScriptLocator.valueOf(locator, "By.partialLinkText: ");
+            return filter(root, element -> element.tagName().equals("a") && element.text().contains(linkText));
+        }
+        throw new UnsupportedCommandException(String.format("'%s' cannot be evaluated against a snapshot", locator));
+    }
+
+    private static List<Element> select(Element root, String cssSelector) {
+        Elements selected;
+        try {
+            selected = root.select(cssSelector);
+        } catch (Selector.SelectorParseException e) {
+            throw new InvalidSelectorException(e.getMessage());
+        }
+        selected.remove(root);
+
+        return new ArrayList<>(selected);
+    }
+
+    private static List<Element> filter(Element root, Predicate<Element> condition) {
+        List<Element> found = new ArrayList<>();
+        for (Element element : root.getAllElements()) {
+            if (element != root && condition.test(element)) {
+                found.add(element);
+            }
+        }
+
+        return found;
+    }
+
+    private synchronized List<Element> selectXpath(Element root, String xpath) {
+        if (null == w3cDocument) {
+            w3cDom = new W3CDom().namespaceAware(false);
+            w3cDocument = w3cDom.fromJsoup(document);
+            w3cNodes = new IdentityHashMap<>();
+            indexW3cNodes(w3cDocument.getDocumentElement());
+        }
+        Node context = root == document ? w3cDocument : w3cNodes.get(root);
+        NodeList nodes;
+        try {
+            nodes = w3cDom.selectXpath(xpath, context);
+        } catch (Selector.SelectorParseException e) {
+            throw new InvalidSelectorException(e.getMessage());
+        }
+        List<Element> found = w3cDom.sourceNodes(nodes, Element.class);
+        found.remove(root);
+
+        return found;
+    }
+
+    private void indexW3cNodes(Node node) {
+        Object source = node.getUserData(W3CDom.SourceProperty);
+        if (source instanceof Element) {
+            w3cNodes.put((Element) source, node);
+        }
+        for (Node child = node.getFirstChild(); null != child; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                indexW3cNodes(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+/**
+ * The outcome of evaluating one Query against one snapshot, see SnapshotValidator.
+ */
+public class SnapshotResult {
+
+    public enum Status {
+        /**
+         * The locator matched exactly one element.
+         */
+        MATCHED,
+        /**
+         * The locator did not match anything.
+         */
+        MISSING,
+        /**
+         * The locator matched more than one element, this is expected for a Query that is used with findAll().
+         */
+        AMBIGUOUS,
+        /**
+         * The locator could not be evaluated, e.g. it was invalid or there was no locator for the browser.
+         */
+        ERROR
+    }
+
+    private final String name;
+    private final String browserName;
+    private final By locator;
+    private final int matches;
+    private final RuntimeException failure;
+
+    SnapshotResult(String name, String browserName, By locator, int matches, RuntimeException failure) {
+        this.name = name;
+        this.browserName = browserName;
+        this.locator = locator;
+        this.matches = matches;
+        this.failure = failure;
+    }
+
+    /**
+     * @return The name the Query was added to the SnapshotValidator with
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The browserName of the snapshot
+     */
+    public String getBrowserName() {
+        return browserName;
+    }
+
+    /**
+     * @return The locator picked for the snapshot's browser, or null if no locator could be picked
+     */
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * @return The number of elements that were matched
+     */
+    public int getMatches() {
+        return matches;
+    }
+
+    /**
+     * @return The exception thrown while evaluating the locator, or null
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    public Status getStatus() {
+        if (null != failure) {
+            return Status.ERROR;
+        }
+        if (matches == 0) {
+            return Status.MISSING;
+        }
+
+        return matches == 1 ? Status.MATCHED : Status.AMBIGUOUS;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s [%s] %s matches=%d%s", getStatus(), name, browserName, locator, matches,
+                null == failure ? "" : " failure=" + failure.getMessage());
+    }
+}
@@ -0,0 +1,104 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Checks a lot of Query objects against HTML snapshots of each browser, without starting a browser.
+ * <p>
+ * Every Query is evaluated against every snapshot using the locator it would pick for that snapshot's browser.  The
+ * evaluations run in parallel and the Query objects that were added are never modified.  A snapshot is a single
+ * document, so a Query that uses inFrame() or searchFrames() is reported as an error instead of being evaluated.
+ * <p>
+ * Example:
+ * <p>
+ * List&lt;SnapshotResult&gt; results = new SnapshotValidator()
+ * .addSnapshot(SnapshotDriver.of(BrowserType.CHROME, Paths.get("snapshots/chrome/login.html")))
+ * .addSnapshot(SnapshotDriver.of(BrowserType.SAFARI, Paths.get("snapshots/safari/login.html")))
+ * .addPageObject(new LoginPage())
+ * .validate();
+ */
+public class SnapshotValidator {
+
+    private final List<SnapshotDriver> snapshots = new ArrayList<>();
+    private final Map<String, Query> queries = new LinkedHashMap<>();
+
+    /**
+     * @param snapshot A snapshot of one browser's DOM
+     * @return this
+     */
+    public SnapshotValidator addSnapshot(SnapshotDriver snapshot) {
+        if (null == snapshot) {
+            throw new NullPointerException("Snapshot is null!");
+        }
+        snapshots.add(snapshot);
+
+        return this;
+    }
+
+    /**
+     * @param name  A name used to identify the Query in the results
+     * @param query The Query to check
+     * @return this
+     */
+    public SnapshotValidator addQuery(String name, Query query) {
+        if (null == query) {
+            throw new NullPointerException("Query is null!");
+        }
+        queries.put(name, query);
+
+        return this;
+    }
+
+    /**
+     * Add every Query reachable from a page object (see AssignDriver.initQueryObjects), each one is named after the
+     * page object class and its field path, e.g. LoginPage.header.links[2]
+     *
+     * @param pageObject The page object to scan
+     * @return this
+     */
+    public SnapshotValidator addPageObject(Object pageObject) {
+        String prefix = pageObject.getClass().getSimpleName() + ".";
+        PageObjectFields.visit(pageObject, true, (path, query) -> queries.put(prefix + path, query));
+
+        return this;
+    }
+
+    /**
+     * @return One result for every Query and snapshot combination, ordered by Query and then by snapshot
+     */
+    public List<SnapshotResult> validate() {
+        List<String> names = new ArrayList<>(queries.keySet());
+        int snapshotCount = snapshots.size();
+
+        return IntStream.range(0, names.size() * snapshotCount)
+                .parallel()
+                .mapToObj(index -> evaluate(names.get(index / snapshotCount), snapshots.get(index % snapshotCount)))
+                .collect(Collectors.toList());
+    }
+
+    private SnapshotResult evaluate(String name, SnapshotDriver snapshot) {
+        String browserName = snapshot.getCapabilities().getBrowserName();
+        By locator = null;
+        try {
+            Query bound = queries.get(name).copyFor(snapshot);
+            locator = bound.by();
+            if (bound.searchesFrames()) {
+                return new SnapshotResult(name, browserName, locator, 0, new UnsupportedOperationException(
+                        String.format("Frames are not supported in snapshots... '%s' uses inFrame() or searchFrames()!", name)));
+            }
+            return new SnapshotResult(name, browserName, locator, bound.findAll().size(), null);
+        } catch (NoSuchElementException e) {
+            return new SnapshotResult(name, browserName, locator, 0, null);
+        } catch (RuntimeException e) {
+            return new SnapshotResult(name, browserName, locator, 0, e);
+        }
+    }
+}
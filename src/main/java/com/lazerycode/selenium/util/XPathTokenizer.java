@@ -0,0 +1,152 @@
+package com.lazerycode.selenium.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the simple XPath steps understood by LocatorOptimiser and NativeLocatorTranslator: an element name (or *)
+ * followed by predicates that test attributes (@attr, @attr='x', contains(@attr, 'x') or starts-with(@attr, 'x'))
+ * joined by and.
+ * <p>
+ * Anything outside that subset is reported by returning null (or false), an unsupported expression is an ordinary
+ * outcome for the callers, which then leave the locator untouched.
+ */
+final class XPathTokenizer {
+
+    static final String EQUALS = "=";
+    static final String CONTAINS = "contains";
+    static final String STARTS_WITH = "starts-with";
+
+    private final String xpath;
+    private int position;
+
+    XPathTokenizer(String xpath) {
+        this.xpath = xpath;
+    }
+
+    /**
+     * @return true if the whole expression has been read
+     */
+    boolean atEnd() {
+        return position == xpath.length();
+    }
+
+    /**
+     * Read the predicates of the current step, if it has any.
+     *
+     * @param existenceTests true to accept predicates that only test that an attribute exists
+     * @return {attribute, operator, value} for each condition, operator is EQUALS, CONTAINS or STARTS_WITH, operator and value are null for an existence test,
+     * or null if the predicates are not supported
+     */
+    List<String[]> predicates(boolean existenceTests) {
+        List<String[]> conditions = new ArrayList<>();
+        while (peek('[')) {
+            position++;
+            do {
+                skipSpaces();
+                String[] condition = condition(existenceTests);
+                if (null == condition) {
+                    return null;
+                }
+                conditions.add(condition);
+                skipSpaces();
+            } while (consume("and "));
+            if (!consume("]")) {
+                return null;
+            }
+        }
+        return conditions;
+    }
+
+    private String[] condition(boolean existenceTests) {
+        if (consume("contains(")) {
+            return function(CONTAINS);
+        }
+        if (consume("starts-with(")) {
+            return function(STARTS_WITH);
+        }
+        String attribute = consume("@") ? token("-_") : null;
+        if (null == attribute) {
+            return null;
+        }
+        skipSpaces();
+        if (!consume("=")) {
+            return existenceTests ? new String[]{attribute, null, null} : null;
+        }
+        skipSpaces();
+        String value = literal();
+        return null == value ? null : new String[]{attribute, EQUALS, value};
+    }
+
+    private String[] function(String operator) {
+        skipSpaces();
+        String attribute = consume("@") ? token("-_") : null;
+        if (null == attribute) {
+            return null;
+        }
+        skipSpaces();
+        if (!consume(",")) {
+            return null;
+        }
+        skipSpaces();
+        String value = literal();
+        skipSpaces();
+        // An empty string matches every element
+        if (null == value || value.isEmpty() || !consume(")")) {
+            return null;
+        }
+        return new String[]{attribute, operator, value};
+    }
+
+    /**
+     * @param extraCharacters The characters other than letters and digits that the name may contain
+     * @return The name at the current position, or null if there is no supported name there
+     */
+    String token(String extraCharacters) {
+        int start = position;
+        while (position < xpath.length() && (Character.isLetterOrDigit(xpath.charAt(position)) || extraCharacters.indexOf(xpath.charAt(position)) >= 0)) {
+            position++;
+        }
+        String token = xpath.substring(start, position);
+        if (token.isEmpty() || !(Character.isLetter(token.charAt(0)) || token.charAt(0) == '_') || peek(':') || peek('(')) {
+            return null;
+        }
+        return token;
+    }
+
+    private String literal() {
+        if (position >= xpath.length() || (xpath.charAt(position) != '\'' && xpath.charAt(position) != '"')) {
+            return null;
+        }
+        char quote = xpath.charAt(position);
+        int end = xpath.indexOf(quote, position + 1);
+        if (end < 0) {
+            return null;
+        }
+        String value = xpath.substring(position + 1, end);
+        position = end + 1;
+        return value;
+    }
+
+    private void skipSpaces() {
+        while (position < xpath.length() && xpath.charAt(position) == ' ') {
+            position++;
+        }
+    }
+
+    private boolean peek(char character) {
+        return position < xpath.length() && xpath.charAt(position) == character;
+    }
+
+    /**
+     * @param expected The text expected at the current position
+     * @return true if it was there, the position is moved past it
+     */
+    boolean consume(String expected) {
+        if (xpath.startsWith(expected, position)) {
+            position += expected.length();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class AnnotatedPageObject {
+
+    @QueryLocator("id=username")
+    Query username;
+    @QueryLocator(value = "css=#password", chrome = "name=password", android = "xpath=//*[@resource-id=\"password\"]")
+    Query password;
+    Query plain = new Query().defaultLocator(By.id("plain"));
+    List<Query> list = Arrays.asList(new Query().defaultLocator(By.id("first")), new Query().defaultLocator(By.id("second")));
+    Component component = new Component(this);
+
+    public static class Component {
+        final AnnotatedPageObject parent;
+        @QueryLocator(firefox = "linkText=Help")
+        Query help;
+
+        Component(AnnotatedPageObject parent) {
+            this.parent = parent;
+        }
+    }
+
+    public static class Extended extends AnnotatedPageObject {
+        Query extra = new Query().defaultLocator(By.id("extra"));
+    }
+}
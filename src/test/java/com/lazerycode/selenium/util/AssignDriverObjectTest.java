@@ -74,4 +74,33 @@ public class AssignDriverObjectTest {
         assertThat(somePageObject.element.driverIsSet()).isTrue();
         assertThat(somePageObject.anotherElement.driverIsSet()).isTrue();
     }
+
+    @Test
+    public void assignDriverToInheritedCollectionAndComponentFields() {
+        SomeComposedPageObject somePageObject = new SomeComposedPageObject();
+
+        initQueryObjects(somePageObject, MOCKED_CHROME_DRIVER);
+
+        assertThat(somePageObject.element.driverIsSet()).isTrue();
+        assertThat(somePageObject.anotherElement.driverIsSet()).isTrue();
+        assertThat(somePageObject.subclassedElement.driverIsSet()).isTrue();
+        assertThat(somePageObject.elementArray[0].driverIsSet()).isTrue();
+        assertThat(somePageObject.elementArray[2].driverIsSet()).isTrue();
+        assertThat(somePageObject.elementList.get(0).driverIsSet()).isTrue();
+        assertThat(somePageObject.elementList.get(1).driverIsSet()).isTrue();
+        assertThat(somePageObject.component.componentElement.driverIsSet()).isTrue();
+    }
+
+    @Test
+    public void assignDriverToTheSameClassMoreThanOnce() {
+        SomeComposedPageObject first = new SomeComposedPageObject();
+        SomeComposedPageObject second = new SomeComposedPageObject();
+
+        initQueryObjects(first, MOCKED_CHROME_DRIVER);
+        initQueryObjects(second, MOCKED_APPIUM_DRIVER);
+
+        assertThat(first.component.componentElement.driverIsSet()).isTrue();
+        assertThat(second.component.componentElement.driverIsSet()).isTrue();
+        assertThat(second.component.componentElement).isNotEqualTo(first.component.componentElement);
+    }
 }
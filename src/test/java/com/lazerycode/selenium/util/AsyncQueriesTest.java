@@ -0,0 +1,169 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AsyncQueriesTest {
+
+    private static final Executor ORIGINAL_EXECUTOR = AsyncQueries.getExecutor();
+    private static final WebElement FIRST_ELEMENT = mock(WebElement.class);
+    private static final WebElement SECOND_ELEMENT = mock(WebElement.class);
+
+    @After
+    public void restoreExecutor() {
+        AsyncQueries.setExecutor(ORIGINAL_EXECUTOR);
+    }
+
+    @Test
+    public void findAsyncCompletesWithTheElement() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(By.id("foo"))).thenReturn(FIRST_ELEMENT);
+        Query query = new Query().defaultLocator(By.id("foo")).usingDriver(mockedWebDriver);
+
+        assertThat(query.findAsync().join()).isEqualTo(FIRST_ELEMENT);
+    }
+
+    @Test
+    public void findAllAsyncCompletesWithTheElements() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElements(By.id("foo"))).thenReturn(Arrays.asList(FIRST_ELEMENT, SECOND_ELEMENT));
+        Query query = new Query().defaultLocator(By.id("foo")).usingDriver(mockedWebDriver);
+
+        assertThat(query.findAllAsync().join()).containsExactly(FIRST_ELEMENT, SECOND_ELEMENT);
+    }
+
+    @Test
+    public void byAsyncFailsIfDriverIsNotSet() {
+        Query query = new Query().defaultLocator(By.id("foo"));
+
+        assertThatThrownBy(() -> query.byAsync().join()).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> query.findAsync().join()).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void findEachReturnsResultsInOrder() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(By.id("first"))).thenReturn(FIRST_ELEMENT);
+        when(mockedWebDriver.findElement(By.id("second"))).thenReturn(SECOND_ELEMENT);
+        Query first = new Query().defaultLocator(By.id("first")).usingDriver(mockedWebDriver);
+        Query second = new Query().defaultLocator(By.id("second")).usingDriver(mockedWebDriver);
+
+        List<WebElement> elements = AsyncQueries.findEach(second, first).join();
+
+        assertThat(elements).containsExactly(SECOND_ELEMENT, FIRST_ELEMENT);
+    }
+
+    @Test
+    public void findEachFailsIfAnyLookupFails() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(By.id("first"))).thenReturn(FIRST_ELEMENT);
+        when(mockedWebDriver.findElement(By.id("missing"))).thenThrow(new NoSuchElementException("missing"));
+        Query first = new Query().defaultLocator(By.id("first")).usingDriver(mockedWebDriver);
+        Query missing = new Query().defaultLocator(By.id("missing")).usingDriver(mockedWebDriver);
+
+        assertThatThrownBy(() -> AsyncQueries.findEach(first, missing).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void lookupsAgainstTheSameDriverRunOneAtATime() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maximumRunning = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(10);
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(By.id("foo"))).thenAnswer(invocation -> {
+            maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            finished.countDown();
+            return FIRST_ELEMENT;
+        });
+        Query query = new Query().defaultLocator(By.id("foo")).usingDriver(mockedWebDriver);
+
+        for (int i = 0; i < 10; i++) {
+            query.findAsync();
+        }
+
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maximumRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void synchronousCallsWaitForLookupsQueuedAgainstTheSameDriver() {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(By.id("slow"))).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            calls.add("slow");
+            return FIRST_ELEMENT;
+        });
+        when(mockedWebDriver.findElement(By.id("fast"))).thenAnswer(invocation -> {
+            calls.add("fast");
+            return SECOND_ELEMENT;
+        });
+        Query slow = new Query().defaultLocator(By.id("slow")).usingDriver(mockedWebDriver);
+        Query fast = new Query().defaultLocator(By.id("fast")).usingDriver(mockedWebDriver);
+
+        CompletableFuture<WebElement> queued = slow.findAsync();
+
+        assertThat(fast.findWebElement()).isEqualTo(SECOND_ELEMENT);
+        assertThat(queued).isDone();
+        assertThat(calls).containsExactly("slow", "fast");
+    }
+
+    @Test
+    public void aRejectedLookupFailsWithoutStoppingTheQueue() {
+        AtomicInteger submissions = new AtomicInteger();
+        AsyncQueries.setExecutor(task -> {
+            if (submissions.getAndIncrement() == 0) {
+                throw new RejectedExecutionException("shutting down");
+            }
+            task.run();
+        });
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(By.id("foo"))).thenReturn(FIRST_ELEMENT);
+        Query query = new Query().defaultLocator(By.id("foo")).usingDriver(mockedWebDriver);
+
+        assertThatThrownBy(() -> query.findAsync().join()).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(query.findAsync().join()).isEqualTo(FIRST_ELEMENT);
+        assertThat(query.findWebElement()).isEqualTo(FIRST_ELEMENT);
+    }
+
+    @Test
+    public void lookupsRunOnTheConfiguredExecutor() {
+        AtomicInteger tasks = new AtomicInteger();
+        AsyncQueries.setExecutor(task -> {
+            tasks.incrementAndGet();
+            task.run();
+        });
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(By.id("foo"))).thenReturn(FIRST_ELEMENT);
+        Query query = new Query().defaultLocator(By.id("foo")).usingDriver(mockedWebDriver);
+
+        assertThat(query.findAsync().join()).isEqualTo(FIRST_ELEMENT);
+        assertThat(tasks.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DriverContextTest {
+
+    private static final QueryDefinition USERNAME = QueryDefinition.of(By.id("username"))
+            .withSpecificLocator(BrowserType.GOOGLECHROME, By.name("username"));
+
+    @After
+    public void clearContext() {
+        DriverContext.clearCurrentThread();
+    }
+
+    @Test
+    public void definitionsAreInterned() {
+        QueryDefinition definition = QueryDefinition.of(By.id("username")).withSpecificLocator(BrowserType.GOOGLECHROME, By.name("username"));
+
+        assertThat(definition).isSameAs(USERNAME);
+        assertThat(QueryDefinition.of(By.id("username"))).isNotSameAs(USERNAME);
+    }
+
+    @Test
+    public void intermediateDefinitionsAreNotKeptAlive() throws Exception {
+        QueryDefinition intermediate = QueryDefinition.of(By.id("password")).withSpecificLocator(BrowserType.GOOGLECHROME, By.name("password"));
+        WeakReference<QueryDefinition> reference = new WeakReference<>(intermediate);
+        QueryDefinition definition = intermediate.withSpecificLocator(BrowserType.SAFARI, By.name("pass"));
+        intermediate = null;
+
+        for (int attempt = 0; attempt < 20 && null != reference.get(); attempt++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertThat(reference.get()).isNull();
+        assertThat(definition.withSpecificLocator(BrowserType.SAFARI, By.name("pass"))).isSameAs(definition);
+    }
+
+    @Test
+    public void eachContextResolvesItsOwnLocator() {
+        DriverContext chrome = DriverContext.of(mockedDriver(BrowserType.GOOGLECHROME));
+        DriverContext firefox = DriverContext.of(mockedDriver(BrowserType.FIREFOX));
+
+        assertThat(USERNAME.in(chrome).by()).isEqualTo(By.name("username"));
+        assertThat(USERNAME.in(firefox).by()).isEqualTo(By.id("username"));
+        assertThat(USERNAME.in(chrome)).isSameAs(USERNAME.in(chrome));
+    }
+
+    @Test
+    public void threadsUseTheContextBoundToThem() throws Exception {
+        DriverContext.bindToCurrentThread(DriverContext.of(mockedDriver(BrowserType.GOOGLECHROME)));
+        RemoteWebDriver firefox = mockedDriver(BrowserType.FIREFOX);
+
+        CompletableFuture<By> otherThread = CompletableFuture.supplyAsync(() -> {
+            DriverContext.bindToCurrentThread(DriverContext.of(firefox));
+            try {
+                return USERNAME.current().by();
+            } finally {
+                DriverContext.clearCurrentThread();
+            }
+        });
+
+        assertThat(USERNAME.current().by()).isEqualTo(By.name("username"));
+        assertThat(otherThread.get()).isEqualTo(By.id("username"));
+    }
+
+    @Test
+    public void supplierContextsRebindWhenTheDriverChanges() {
+        RemoteWebDriver chrome = mockedDriver(BrowserType.GOOGLECHROME);
+        AtomicReference<RemoteWebDriver> driver = new AtomicReference<>(chrome);
+        DriverContext context = DriverContext.supplier(driver::get);
+        Query chromeQuery = USERNAME.in(context);
+
+        driver.set(mockedDriver(BrowserType.FIREFOX));
+
+        assertThat(chromeQuery.by()).isEqualTo(By.name("username"));
+        assertThat(USERNAME.in(context).by()).isEqualTo(By.id("username"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void currentRequiresABoundContext() {
+        USERNAME.current();
+    }
+}
@@ -0,0 +1,135 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DriverSessionTest {
+
+    @Test
+    public void queriesForTheSameDriverShareASession() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        Query first = new Query().defaultLocator(By.id("first")).usingDriver(driver);
+        Query second = new Query().defaultLocator(By.id("second")).usingDriver(driver);
+
+        assertThat(first.session()).isSameAs(second.session()).isSameAs(DriverSession.of(driver));
+        assertThat(DriverSession.of(driver).getDriver()).isSameAs(driver);
+    }
+
+    @Test
+    public void endingASessionUnbindsEveryQuery() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        when(driver.findElement(By.id("first"))).thenReturn(mock(WebElement.class));
+        Query first = new Query().defaultLocator(By.id("first")).cacheElement(true).usingDriver(driver);
+        Query second = new Query().defaultLocator(By.id("second")).usingDriver(driver);
+        DriverSession session = DriverSession.of(driver);
+        first.findWebElement();
+
+        DriverSession.end(driver);
+
+        assertThat(session.isEnded()).isTrue();
+        assertThatThrownBy(first::findWebElement).isInstanceOf(IllegalStateException.class).hasMessageContaining("has ended");
+        assertThatThrownBy(second::findAll).isInstanceOf(IllegalStateException.class);
+        assertThat(DriverSession.of(driver)).isNotSameAs(session);
+    }
+
+    @Test
+    public void quittingTheDriverDirectlyEndsTheSession() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        AtomicReference<SessionId> sessionId = new AtomicReference<>(new SessionId("running"));
+        when(driver.getSessionId()).thenAnswer(invocation -> sessionId.get());
+        Query query = new Query().defaultLocator(By.id("foo")).usingDriver(driver);
+        DriverSession session = query.session();
+
+        sessionId.set(null);
+
+        assertThat(session.isEnded()).isTrue();
+        assertThatThrownBy(query::findWebElement).isInstanceOf(IllegalStateException.class).hasMessageContaining("has ended");
+    }
+
+    @Test
+    public void aDriverQuitDirectlyIsReleasedWhenTheNextSessionStarts() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        AtomicReference<SessionId> sessionId = new AtomicReference<>(new SessionId("running"));
+        when(driver.getSessionId()).thenAnswer(invocation -> sessionId.get());
+        DriverSession session = new Query().defaultLocator(By.id("foo")).usingDriver(driver).session();
+
+        sessionId.set(null);
+        new Query().defaultLocator(By.id("foo")).usingDriver(mockedChromeDriver());
+
+        assertThat(DriverSession.of(driver)).isNotSameAs(session);
+        assertThatThrownBy(session::getDriver).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void endingASessionReleasesFanOutCopies() {
+        RemoteWebDriver ended = mockedChromeDriver();
+        RemoteWebDriver running = mockedChromeDriver();
+        Query query = new Query().defaultLocator(By.id("foo")).usingDrivers(ended, running);
+
+        DriverSession.end(ended);
+
+        assertThatThrownBy(() -> query.forDriver(ended)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(query.forDriver(running).session().isEnded()).isFalse();
+    }
+
+    @Test
+    public void leakedQueriesListsQueriesStillBoundToEndedSessions() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        Query leaked = new Query().defaultLocator(By.id("leaked")).usingDriver(driver);
+        Query rebound = new Query().defaultLocator(By.id("rebound")).usingDriver(driver);
+
+        DriverSession.quit(driver);
+        rebound.usingDriver(mockedChromeDriver());
+
+        verify(driver).quit();
+        Map<String, List<Query>> leaks = DriverSession.leakedQueries();
+        assertThat(leaks).containsKey(driver.toString());
+        assertThat(leaks.get(driver.toString())).containsExactly(leaked);
+    }
+
+    @Test
+    public void endedSessionsDoNotKeepTheirDriverAlive() throws Exception {
+        Query query = new Query().defaultLocator(By.id("cached"));
+        WeakReference<RemoteWebDriver> driver = bindNewDriver(query);
+
+        DriverSession.end(driver.get());
+        for (int attempt = 0; attempt < 20 && null != driver.get(); attempt++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        assertThat(driver.get()).isNull();
+        assertThat(query.session().isEnded()).isTrue();
+    }
+
+    private WeakReference<RemoteWebDriver> bindNewDriver(Query query) {
+        RemoteWebDriver driver = new RemoteWebDriver() {
+            @Override
+            public Capabilities getCapabilities() {
+                return new DesiredCapabilities(BrowserType.FIREFOX, "", Platform.LINUX);
+            }
+        };
+        query.usingDriver(driver);
+
+        return new WeakReference<>(driver);
+    }
+}
@@ -0,0 +1,109 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FallbackLocatorTest {
+
+    private static final By OLD = By.id("checkout");
+    private static final By NEW = By.cssSelector("button.checkout");
+    private static final By TEXT = By.xpath("//button[.='Checkout']");
+
+    @Test
+    public void aSingleLocatorIsNotWrapped() {
+        assertThat(FallbackLocator.of(OLD)).isSameAs(OLD);
+    }
+
+    @Test
+    public void candidatesAreTriedInOrderUntilOneMatches() {
+        SearchContext context = mock(SearchContext.class);
+        WebElement element = mock(WebElement.class);
+        when(context.findElement(OLD)).thenThrow(new NoSuchElementException("gone"));
+        when(context.findElement(NEW)).thenReturn(element);
+
+        assertThat(FallbackLocator.of(OLD, NEW, TEXT).findElement(context)).isSameAs(element);
+        verify(context, never()).findElement(TEXT);
+    }
+
+    @Test
+    public void theLocatorThatMatchedIsTriedFirstNextTime() {
+        SearchContext context = mock(SearchContext.class);
+        WebElement element = mock(WebElement.class);
+        when(context.findElement(OLD)).thenThrow(new NoSuchElementException("gone"));
+        when(context.findElement(NEW)).thenThrow(new NoSuchElementException("gone"));
+        when(context.findElement(TEXT)).thenReturn(element);
+        FallbackLocator locator = (FallbackLocator) FallbackLocator.of(OLD, NEW, TEXT);
+
+        locator.findElement(context);
+        locator.findElement(context);
+        locator.findElement(context);
+
+        assertThat(locator.getCurrentOrder()).containsExactly(TEXT, OLD, NEW);
+        assertThat(locator.getLocators()).containsExactly(OLD, NEW, TEXT);
+        verify(context, times(1)).findElement(OLD);
+        verify(context, times(3)).findElement(TEXT);
+    }
+
+    @Test
+    public void statisticsShowWhichLocatorsNeverMatch() {
+        SearchContext context = mock(SearchContext.class);
+        when(context.findElements(OLD)).thenReturn(Collections.emptyList());
+        when(context.findElements(NEW)).thenReturn(Arrays.asList(mock(WebElement.class), mock(WebElement.class)));
+        FallbackLocator locator = (FallbackLocator) FallbackLocator.of(OLD, NEW, TEXT);
+
+        assertThat(locator.findElements(context)).hasSize(2);
+        assertThat(locator.findElements(context)).hasSize(2);
+
+        List<LocatorStatistics> statistics = locator.getStatistics();
+        assertThat(statistics.get(0).getAttempts()).isEqualTo(1);
+        assertThat(statistics.get(0).isDead()).isTrue();
+        assertThat(statistics.get(1).getMatches()).isEqualTo(2);
+        assertThat(statistics.get(1).getLastMatchMillis()).isPositive();
+        assertThat(statistics.get(2).getAttempts()).isEqualTo(0);
+        assertThat(statistics.get(2).isDead()).isFalse();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nothingMatching() {
+        SearchContext context = mock(SearchContext.class);
+        when(context.findElement(any(By.class))).thenThrow(new NoSuchElementException("gone"));
+
+        FallbackLocator.of(OLD, NEW).findElement(context);
+    }
+
+    @Test
+    public void queriesUseTheFallbacksForTheirBrowser() {
+        RemoteWebDriver driver = mockedDriver(BrowserType.GOOGLECHROME);
+        WebElement element = mock(WebElement.class);
+        when(driver.findElement(any(By.class))).thenAnswer(invocation -> ((By) invocation.getArgument(0)).findElement(driver));
+        when(driver.findElementById("checkout")).thenThrow(new NoSuchElementException("gone"));
+        when(driver.findElementByCssSelector("button.checkout")).thenReturn(element);
+        Query query = new Query()
+                .defaultLocator(By.name("checkout"))
+                .addSpecificLocator(BrowserType.GOOGLECHROME, OLD, NEW)
+                .usingDriver(driver);
+
+        assertThat(query.findWebElement()).isSameAs(element);
+        assertThat(query.by()).isEqualTo(FallbackLocator.of(OLD, NEW));
+        assertThat(query.getLocatorStatistics()).extracting(LocatorStatistics::getMatches).containsExactly(0L, 1L);
+        assertThat(new Query().defaultLocator(OLD).usingDriver(driver).getLocatorStatistics()).isEmpty();
+    }
+}
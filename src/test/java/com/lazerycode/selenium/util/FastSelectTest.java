@@ -0,0 +1,115 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.ui.ISelect;
+import org.openqa.selenium.support.ui.Select;
+import org.openqa.selenium.support.ui.UnexpectedTagNameException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FastSelectTest {
+
+    private static final By LOCATOR = By.id("country");
+    private static final WebElement SELECT = mock(WebElement.class);
+    private static final WebElement FIRST_OPTION = mock(WebElement.class);
+    private static final WebElement SECOND_OPTION = mock(WebElement.class);
+
+    @Test
+    public void optionsAreReadWithASingleScript() {
+        RemoteWebDriver mockedWebDriver = mockedSelectDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(state("select", false));
+        when(mockedWebDriver.executeScript(anyString(), eq(SELECT), eq("options"), any(), any())).thenReturn(options(FIRST_OPTION, SECOND_OPTION));
+        when(mockedWebDriver.executeScript(anyString(), eq(SELECT), eq("selected"), any(), any())).thenReturn(options(SECOND_OPTION));
+        ISelect select = new Query().defaultLocator(LOCATOR).usingDriver(mockedWebDriver).findFastSelect();
+
+        assertThat(select.isMultiple()).isFalse();
+        assertThat(select.getOptions()).containsExactly(FIRST_OPTION, SECOND_OPTION);
+        assertThat(select.getFirstSelectedOption()).isEqualTo(SECOND_OPTION);
+        verify(mockedWebDriver, times(3)).executeScript(anyString(), any());
+    }
+
+    @Test
+    public void selectByVisibleTextIsASingleScript() {
+        RemoteWebDriver mockedWebDriver = mockedSelectDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(state("select", false));
+        when(mockedWebDriver.executeScript(anyString(), eq(SELECT), eq("select"), any(), any())).thenReturn(Collections.singletonMap("matched", true));
+        ISelect select = new Query().defaultLocator(LOCATOR).usingDriver(mockedWebDriver).findFastSelect();
+
+        select.selectByVisibleText("France");
+
+        verify(mockedWebDriver, times(1)).executeScript(anyString(), eq(SELECT), eq("select"), eq("text"), eq("France"));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void selectingAMissingOptionThrowsNoSuchElementException() {
+        RemoteWebDriver mockedWebDriver = mockedSelectDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(state("select", true));
+        when(mockedWebDriver.executeScript(anyString(), eq(SELECT), eq("select"), any(), any())).thenReturn(Collections.singletonMap("matched", false));
+
+        new Query().defaultLocator(LOCATOR).usingDriver(mockedWebDriver).findFastSelect().selectByValue("missing");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void singleSelectsCannotBeDeselected() {
+        RemoteWebDriver mockedWebDriver = mockedSelectDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(state("select", false));
+
+        new Query().defaultLocator(LOCATOR).usingDriver(mockedWebDriver).findFastSelect().deselectAll();
+    }
+
+    @Test(expected = UnexpectedTagNameException.class)
+    public void onlySelectElementsCanBeUsed() {
+        RemoteWebDriver mockedWebDriver = mockedSelectDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(state("div", false));
+
+        new Query().defaultLocator(LOCATOR).usingDriver(mockedWebDriver).findFastSelect();
+    }
+
+    @Test
+    public void driversWithoutScriptsGetAStandardSelect() {
+        SnapshotDriver snapshot = SnapshotDriver.of(BrowserType.FIREFOX, "<select id='country'><option>France</option></select>");
+
+        ISelect select = new Query().defaultLocator(LOCATOR).usingDriver(snapshot).findFastSelect();
+
+        assertThat(select).isInstanceOf(Select.class);
+        assertThat(select.getOptions()).hasSize(1);
+    }
+
+    private Map<String, Object> state(String tagName, boolean multiple) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("tagName", tagName);
+        state.put("multiple", multiple);
+
+        return state;
+    }
+
+    private Map<String, List<WebElement>> options(WebElement... options) {
+        return Collections.singletonMap("options", Arrays.asList(options));
+    }
+
+    private RemoteWebDriver mockedSelectDriver() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(LOCATOR)).thenReturn(SELECT);
+
+        return mockedWebDriver;
+    }
+}
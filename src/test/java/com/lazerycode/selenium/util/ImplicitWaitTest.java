@@ -0,0 +1,120 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ImplicitWaitTest {
+
+    private static final By LOCATOR = By.id("spinner");
+
+    @Test
+    public void negativeChecksRunWithoutTheImplicitWait() {
+        RemoteWebDriver driver = mockedDriverWithTimeouts(false);
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        when(driver.findElements(LOCATOR)).thenReturn(Collections.emptyList());
+        ImplicitWait.set(driver, Duration.ofSeconds(10));
+        Query query = new Query().defaultLocator(LOCATOR).usingDriver(driver);
+
+        assertThat(query.isAbsent()).isTrue();
+
+        InOrder order = inOrder(timeouts, driver);
+        order.verify(timeouts).implicitlyWait(10000, TimeUnit.MILLISECONDS);
+        order.verify(timeouts).implicitlyWait(0, TimeUnit.MILLISECONDS);
+        order.verify(driver).findElements(LOCATOR);
+        order.verify(timeouts).implicitlyWait(10000, TimeUnit.MILLISECONDS);
+        verify(timeouts, times(3)).implicitlyWait(anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void theImplicitWaitIsPutBackEvenIfTheCheckFails() {
+        RemoteWebDriver driver = mockedDriverWithTimeouts(false);
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        when(driver.findElements(LOCATOR)).thenThrow(new WebDriverException("connection lost"));
+        ImplicitWait.set(driver, Duration.ofSeconds(5));
+        Query query = new Query().defaultLocator(LOCATOR).usingDriver(driver);
+
+        assertThatThrownBy(query::isPresent).isInstanceOf(WebDriverException.class);
+
+        InOrder order = inOrder(timeouts, driver);
+        order.verify(timeouts).implicitlyWait(0, TimeUnit.MILLISECONDS);
+        order.verify(driver).findElements(LOCATOR);
+        order.verify(timeouts).implicitlyWait(5000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void driversWithoutAnImplicitWaitAreLeftAlone() {
+        RemoteWebDriver driver = mockedDriverWithTimeouts(false);
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        when(driver.findElements(LOCATOR)).thenReturn(Arrays.asList(mock(WebElement.class), mock(WebElement.class)));
+        Query query = new Query().defaultLocator(LOCATOR).usingDriver(driver);
+
+        assertThat(query.countNow()).isEqualTo(2);
+        assertThat(query.isPresent()).isTrue();
+        assertThat(ImplicitWait.get(driver)).isEqualTo(Duration.ZERO);
+        verify(timeouts, never()).implicitlyWait(anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void anImplicitWaitSetDirectlyIsNotTracked() {
+        RemoteWebDriver driver = mockedDriverWithTimeouts(false);
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        when(driver.findElements(LOCATOR)).thenReturn(Collections.emptyList());
+        ImplicitWait.set(mockedDriverWithTimeouts(false), Duration.ofSeconds(10));
+        driver.manage().timeouts().implicitlyWait(10, TimeUnit.SECONDS);
+        Query query = new Query().defaultLocator(LOCATOR).usingDriver(driver);
+
+        assertThat(query.isPresent()).isFalse();
+        assertThat(ImplicitWait.get(driver)).isEqualTo(Duration.ZERO);
+        verify(timeouts, times(1)).implicitlyWait(anyLong(), any(TimeUnit.class));
+        verify(driver).findElements(LOCATOR);
+    }
+
+    @Test
+    public void scriptCapableDriversCountWithoutTouchingTheTimeouts() {
+        RemoteWebDriver driver = mockedDriverWithTimeouts(true);
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        when(((JavascriptExecutor) driver).executeScript(anyString(), any())).thenReturn(3L);
+        ImplicitWait.set(driver, Duration.ofSeconds(10));
+        Query query = new Query().defaultLocator(LOCATOR).usingDriver(driver);
+
+        assertThat(query.countNow()).isEqualTo(3);
+        assertThat(query.isAbsent()).isFalse();
+        verify(timeouts, times(1)).implicitlyWait(anyLong(), any(TimeUnit.class));
+        verify(driver, never()).findElements(any(By.class));
+    }
+
+    private RemoteWebDriver mockedDriverWithTimeouts(boolean javascriptEnabled) {
+        WebDriver.Timeouts mockedTimeouts = mock(WebDriver.Timeouts.class);
+        WebDriver.Options mockedOptions = mock(WebDriver.Options.class);
+        when(mockedOptions.timeouts()).thenReturn(mockedTimeouts);
+
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver(javascriptEnabled);
+        when(mockedWebDriver.manage()).thenReturn(mockedOptions);
+
+        return mockedWebDriver;
+    }
+}
@@ -0,0 +1,150 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.BrowserType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LocatorCatalogueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void entriesAreReadFromTheIndexWhenTheyAreFirstUsed() throws IOException {
+        LocatorCatalogue catalogue = compiledCatalogue(
+                "login.username=id=username",
+                "login.username@googlechrome=css=#login input[name='user']",
+                "login.password=name=password",
+                "search.results@firefox=xpath=//ul[@id='results']/li",
+                "caf\\u00e9.menu=linkText=Caf\\u00e9");
+
+        assertThat(catalogue.size()).isEqualTo(4);
+        assertThat(catalogue.getLoadedCount()).isEqualTo(0);
+        assertThat(catalogue.contains("login.password")).isTrue();
+        assertThat(catalogue.contains("login")).isFalse();
+
+        QueryDefinition username = catalogue.definition("login.username");
+
+        assertThat(username).isSameAs(QueryDefinition.of(By.id("username")).withSpecificLocator(BrowserType.GOOGLECHROME, By.cssSelector("#login input[name='user']")));
+        assertThat(catalogue.definition("login.username")).isSameAs(username);
+        assertThat(catalogue.definition("café.menu")).isSameAs(QueryDefinition.of(By.linkText("Café")));
+        assertThat(catalogue.definition("search.results")).isSameAs(QueryDefinition.of(null).withSpecificLocator(BrowserType.FIREFOX, By.xpath("//ul[@id='results']/li")));
+        assertThat(catalogue.getLoadedCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void queriesOnlyLoadTheirLocatorsWhenByIsFirstNeeded() throws IOException {
+        LocatorCatalogue catalogue = compiledCatalogue(
+                "login.username=id=username",
+                "login.username@googlechrome=name=user");
+
+        Query username = catalogue.query("login.username").usingDriver(mockedDriver(BrowserType.GOOGLECHROME));
+        Query overridden = catalogue.query("login.username").addSpecificLocator(BrowserType.GOOGLECHROME, By.id("override"));
+
+        assertThat(catalogue.getLoadedCount()).isEqualTo(0);
+        assertThat(username.by()).isEqualTo(By.name("user"));
+        assertThat(catalogue.getLoadedCount()).isEqualTo(1);
+        assertThat(overridden.usingDriver(mockedDriver(BrowserType.GOOGLECHROME)).by()).isEqualTo(By.id("override"));
+        assertThat(overridden.usingDriver(mockedDriver(BrowserType.FIREFOX)).by()).isEqualTo(By.id("username"));
+    }
+
+    @Test
+    public void unknownNamesAreRejected() throws IOException {
+        LocatorCatalogue catalogue = compiledCatalogue("login.username=id=username");
+
+        assertThatThrownBy(() -> catalogue.query("login.missing")).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("login.missing");
+        assertThatThrownBy(() -> catalogue.definition("a")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void invalidLocatorsAreReportedWhenTheCatalogueIsCompiled() throws IOException {
+        Path source = catalogueFile("login.username=username");
+
+        assertThatThrownBy(() -> LocatorCatalogue.compile(source, folder.getRoot().toPath().resolve("catalogue.idx")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("login.username");
+    }
+
+    @Test
+    public void theIndexIsRebuiltWhenTheCatalogueChanges() throws IOException {
+        Path source = catalogueFile("login.username=id=username");
+        Path index = folder.getRoot().toPath().resolve("catalogue.idx");
+        assertThat(LocatorCatalogue.openOrCompile(source, index).definition("login.username")).isSameAs(QueryDefinition.of(By.id("username")));
+
+        Files.write(source, "login.username=id=user\n".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(index).toMillis() + 2000));
+
+        assertThat(LocatorCatalogue.openOrCompile(source, index).definition("login.username")).isSameAs(QueryDefinition.of(By.id("user")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyCompiledIndexesCanBeOpened() throws IOException {
+        LocatorCatalogue.open(catalogueFile("login.username=id=username"));
+    }
+
+    @Test
+    public void truncatedIndexesAreRejectedWhenTheyAreOpened() throws IOException {
+        Path index = compiledIndex("login.username=id=username", "login.password=name=password");
+        byte[] compiled = Files.readAllBytes(index);
+        Files.write(index, Arrays.copyOf(compiled, compiled.length - 3));
+
+        assertThatThrownBy(() -> LocatorCatalogue.open(index))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(index.toString());
+    }
+
+    @Test
+    public void corruptEntriesAreReportedAgainstTheIndex() throws IOException {
+        Path index = compiledIndex("login.username=id=username");
+        byte[] compiled = Files.readAllBytes(index);
+        ByteBuffer.wrap(compiled).putInt(12, compiled.length + 100);
+        Files.write(index, compiled);
+        LocatorCatalogue catalogue = LocatorCatalogue.open(index);
+
+        assertThatThrownBy(() -> catalogue.definition("login.username"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(index.toString());
+    }
+
+    @Test
+    public void anUnusableIndexIsCompiledAgain() throws IOException {
+        Path source = catalogueFile("login.username=id=username");
+        Path index = folder.getRoot().toPath().resolve("catalogue.idx");
+        Files.write(index, new byte[]{'Q', 'L', 'C', '1', 0, 0, 0, 0});
+        Files.setLastModifiedTime(index, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 2000));
+
+        assertThat(LocatorCatalogue.openOrCompile(source, index).definition("login.username")).isSameAs(QueryDefinition.of(By.id("username")));
+    }
+
+    private LocatorCatalogue compiledCatalogue(String... lines) throws IOException {
+        return LocatorCatalogue.open(compiledIndex(lines));
+    }
+
+    private Path compiledIndex(String... lines) throws IOException {
+        Path index = folder.getRoot().toPath().resolve("catalogue.idx");
+        LocatorCatalogue.compile(catalogueFile(lines), index);
+
+        return index;
+    }
+
+    private Path catalogueFile(String... lines) throws IOException {
+        Path source = folder.getRoot().toPath().resolve("catalogue.properties");
+        Files.write(source, Arrays.asList(lines), StandardCharsets.UTF_8);
+
+        return source;
+    }
+}
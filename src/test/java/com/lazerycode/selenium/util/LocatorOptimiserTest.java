@@ -0,0 +1,70 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LocatorOptimiserTest {
+
+    @Test
+    public void rewritesAnIdOnlyXPathToById() {
+        assertThat(LocatorOptimiser.rewrite("//*[@id='x']")).isEqualTo(By.id("x"));
+    }
+
+    @Test
+    public void rewritesSimpleXPathsToCss() {
+        assertThat(LocatorOptimiser.rewrite("//div[@id='x']")).isEqualTo(By.cssSelector("div[id=\"x\"]"));
+        assertThat(LocatorOptimiser.rewrite("//*[@class='a']//span")).isEqualTo(By.cssSelector("*[class=\"a\"] span"));
+        assertThat(LocatorOptimiser.rewrite("//ul/li[@data-x and contains(@class, \"y\")]")).isEqualTo(By.cssSelector("ul > li[data-x][class*=\"y\"]"));
+        assertThat(LocatorOptimiser.rewrite("//a[starts-with(@href,'https:')][@title = 'Say \"hi\"']")).isEqualTo(By.cssSelector("a[href^=\"https:\"][title=\"Say \\\"hi\\\"\"]"));
+    }
+
+    @Test
+    public void leavesXPathsWithoutAnExactCssEquivalentAlone() {
+        assertThat(LocatorOptimiser.rewrite("//div[1]")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//div[text()='x']")).isNull();
+        assertThat(LocatorOptimiser.rewrite("/html/body")).isNull();
+        assertThat(LocatorOptimiser.rewrite(".//div")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//div/..")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//div | //span")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//input[@type='TEXT']")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//div[contains(@class,'')]")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//svg:rect")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//DIV")).isNull();
+    }
+
+    @Test
+    public void leavesEmptyIdsAlone() {
+        assertThat(LocatorOptimiser.rewrite("//*[@id='']")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//div[@id=\"\"]")).isNull();
+    }
+
+    @Test
+    public void leavesSvgAndMathMLElementNamesAlone() {
+        assertThat(LocatorOptimiser.rewrite("//svg")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//div//path[@d='M0']")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//feblend")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//math[@display='block']")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//svg//*[@id='x']")).isNull();
+        assertThat(LocatorOptimiser.rewrite("//section//*[@id='x']")).isEqualTo(By.cssSelector("section *[id=\"x\"]"));
+    }
+
+    @Test
+    public void optimiseReturnsTheOriginalLocatorIfItCannotBeRewritten() {
+        By notXPath = By.name("foo");
+        By unsupported = By.xpath("//div[last()]");
+
+        assertThat(LocatorOptimiser.optimise(notXPath)).isSameAs(notXPath);
+        assertThat(LocatorOptimiser.optimise(unsupported)).isSameAs(unsupported);
+        assertThat(LocatorOptimiser.getRewrites()).doesNotContainKey(unsupported);
+    }
+
+    @Test
+    public void rewritesAreReported() {
+        By xpath = By.xpath("//form[@name='login']//button");
+
+        assertThat(LocatorOptimiser.optimise(xpath)).isEqualTo(By.cssSelector("form[name=\"login\"] button"));
+        assertThat(LocatorOptimiser.getRewrites()).containsEntry(xpath, By.cssSelector("form[name=\"login\"] button"));
+    }
+}
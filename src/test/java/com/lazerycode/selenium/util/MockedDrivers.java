@@ -0,0 +1,56 @@
+package com.lazerycode.selenium.util;
+
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.remote.MobilePlatform;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.openqa.selenium.remote.CapabilityType.PLATFORM_NAME;
+import static org.openqa.selenium.remote.CapabilityType.SUPPORTS_JAVASCRIPT;
+
+/**
+ * Mocked drivers shared by the tests, stub anything else a test needs on the driver that is returned.
+ */
+final class MockedDrivers {
+
+    private MockedDrivers() {
+    }
+
+    static RemoteWebDriver mockedChromeDriver() {
+        return mockedDriver(BrowserType.GOOGLECHROME);
+    }
+
+    static RemoteWebDriver mockedChromeDriver(boolean javascriptEnabled) {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.getCapabilities().getCapability(SUPPORTS_JAVASCRIPT)).thenReturn(javascriptEnabled);
+
+        return mockedWebDriver;
+    }
+
+    static RemoteWebDriver mockedDriver(String browserType) {
+        Capabilities mockedCapabilities = mock(Capabilities.class);
+        when(mockedCapabilities.getBrowserName()).thenReturn(browserType);
+        when(mockedCapabilities.getCapability(PLATFORM_NAME)).thenReturn(Platform.YOSEMITE);
+
+        RemoteWebDriver mockedWebDriver = mock(RemoteWebDriver.class);
+        when(mockedWebDriver.getCapabilities()).thenReturn(mockedCapabilities);
+
+        return mockedWebDriver;
+    }
+
+    static RemoteWebDriver mockedAndroidDriver() {
+        Capabilities mockedCapabilities = mock(Capabilities.class);
+        when(mockedCapabilities.getBrowserName()).thenReturn("");
+        when(mockedCapabilities.getCapability(PLATFORM_NAME)).thenReturn(Platform.fromString(MobilePlatform.ANDROID));
+        when(mockedCapabilities.getCapability("automationName")).thenReturn("Appium");
+
+        RemoteWebDriver mockedWebDriver = mock(AndroidDriver.class);
+        when(mockedWebDriver.getCapabilities()).thenReturn(mockedCapabilities);
+
+        return mockedWebDriver;
+    }
+}
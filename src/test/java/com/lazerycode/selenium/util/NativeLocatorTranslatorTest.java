@@ -0,0 +1,78 @@
+package com.lazerycode.selenium.util;
+
+import io.appium.java_client.MobileBy;
+import org.junit.Test;
+import org.openqa.selenium.By;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedAndroidDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NativeLocatorTranslatorTest {
+
+    private static final String ANDROID = NativeLocatorTranslator.ANDROID;
+    private static final String IOS = NativeLocatorTranslator.IOS;
+
+    @Test
+    public void translatesAccessibilityIds() {
+        assertThat(NativeLocatorTranslator.translate("//*[@content-desc='Login']", ANDROID)).isEqualTo(MobileBy.AccessibilityId("Login"));
+        assertThat(NativeLocatorTranslator.translate("//*[@name=\"Login\"]", IOS)).isEqualTo(MobileBy.AccessibilityId("Login"));
+    }
+
+    @Test
+    public void translatesAndroidXPathsToUiSelectors() {
+        assertThat(NativeLocatorTranslator.translate("//android.widget.Button[@text='OK' and @long-clickable='true']", ANDROID))
+                .isEqualTo(MobileBy.AndroidUIAutomator("new UiSelector().className(\"android.widget.Button\").text(\"OK\").longClickable(true)"));
+        assertThat(NativeLocatorTranslator.translate("//*[@resource-id='com.app:id/user'][contains(@text, 'Say \"hi\"')]", ANDROID))
+                .isEqualTo(MobileBy.AndroidUIAutomator("new UiSelector().resourceId(\"com.app:id/user\").textContains(\"Say \\\"hi\\\"\")"));
+        assertThat(NativeLocatorTranslator.translate("//android.widget.EditText", ANDROID)).isEqualTo(By.className("android.widget.EditText"));
+    }
+
+    @Test
+    public void attributeNamesWithDashesBecomeCamelCaseMethodNames() {
+        assertThat(NativeLocatorTranslator.camelCase("enabled")).isEqualTo("enabled");
+        assertThat(NativeLocatorTranslator.camelCase("long-clickable")).isEqualTo("longClickable");
+        assertThat(NativeLocatorTranslator.camelCase("a-b-c")).isEqualTo("aBC");
+    }
+
+    @Test
+    public void translatesIosXPathsToPredicateStrings() {
+        assertThat(NativeLocatorTranslator.translate("//XCUIElementTypeButton[starts-with(@label,\"Don't\") and @visible='true']", IOS))
+                .isEqualTo(MobileBy.iOSNsPredicateString("type == 'XCUIElementTypeButton' AND label BEGINSWITH 'Don\\'t' AND visible == 1"));
+    }
+
+    @Test
+    public void leavesXPathsWithoutAnExactNativeEquivalentAlone() {
+        assertThat(NativeLocatorTranslator.translate("//android.widget.Button[1]", ANDROID)).isNull();
+        assertThat(NativeLocatorTranslator.translate("//android.widget.ListView/android.widget.TextView", ANDROID)).isNull();
+        assertThat(NativeLocatorTranslator.translate("//*[@bounds='[0,0][10,10]']", ANDROID)).isNull();
+        assertThat(NativeLocatorTranslator.translate("//*[@enabled='yes']", ANDROID)).isNull();
+        assertThat(NativeLocatorTranslator.translate("//*[text()='x']", IOS)).isNull();
+        assertThat(NativeLocatorTranslator.translate("//*[@rect='x']", IOS)).isNull();
+        assertThat(NativeLocatorTranslator.translate("//*", IOS)).isNull();
+        assertThat(NativeLocatorTranslator.translate(".//*[@name='x']", IOS)).isNull();
+    }
+
+    @Test
+    public void translationsAreCachedAndReported() {
+        By xpath = By.xpath("//*[@content-desc='Report']");
+        By unsupported = By.xpath("//*[@content-desc='Report'][2]");
+
+        By translated = NativeLocatorTranslator.translate(xpath, "android");
+
+        assertThat(NativeLocatorTranslator.translate(xpath, ANDROID)).isSameAs(translated);
+        assertThat(NativeLocatorTranslator.translate(unsupported, ANDROID)).isSameAs(unsupported);
+        assertThat(NativeLocatorTranslator.translate(xpath, "WINDOWS")).isSameAs(xpath);
+        assertThat(NativeLocatorTranslator.getTranslations().get(ANDROID)).containsEntry(xpath, MobileBy.AccessibilityId("Report"));
+        assertThat(NativeLocatorTranslator.getTranslations().get(ANDROID)).doesNotContainKey(unsupported);
+    }
+
+    @Test
+    public void queriesTranslateLocatorsForNativeContextsUnlessDisabled() {
+        By xpath = By.xpath("//*[@content-desc='Menu']");
+        Query query = new Query().defaultLocator(xpath).usingDriver(mockedAndroidDriver());
+
+        assertThat(query.by()).isEqualTo(MobileBy.AccessibilityId("Menu"));
+        assertThat(query.translateNativeLocators(false).by()).isEqualTo(xpath);
+        assertThat(new Query().defaultLocator(xpath).within(query).usingDriver(mockedAndroidDriver()).by()).isEqualTo(xpath);
+    }
+}
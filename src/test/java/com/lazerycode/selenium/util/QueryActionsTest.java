@@ -0,0 +1,140 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryActionsTest {
+
+    @Test
+    public void actionsAgainstTheSameDriverArePerformedWithASingleScript() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver(true);
+        Query username = new Query().defaultLocator(By.id("username")).usingDriver(mockedWebDriver);
+        Query password = new Query().defaultLocator(By.name("password")).usingDriver(mockedWebDriver);
+        Query country = new Query().defaultLocator(By.xpath("//select")).usingDriver(mockedWebDriver);
+        Query submit = new Query().defaultLocator(By.cssSelector("button")).usingDriver(mockedWebDriver);
+        Map<Query, String> values = new LinkedHashMap<>();
+        values.put(username, "bob");
+        values.put(password, "secret");
+
+        new QueryActions().fill(values).select(country, "United Kingdom").click(submit).perform();
+
+        ArgumentCaptor<Object> arguments = ArgumentCaptor.forClass(Object.class);
+        verify(mockedWebDriver, times(1)).executeScript(anyString(), arguments.capture());
+        verify(mockedWebDriver, never()).findElement(any(By.class));
+        List<?> steps = (List<?>) arguments.getValue();
+        assertThat(steps).hasSize(4);
+        assertThat(steps.get(0)).isEqualTo(Arrays.asList("css", "*[id=\"username\"]", null, QueryActions.TYPE, "bob"));
+        assertThat(steps.get(2)).isEqualTo(Arrays.asList("xpath", "//select", null, QueryActions.SELECT, "United Kingdom"));
+        assertThat(steps.get(3)).isEqualTo(Arrays.asList("css", "button", null, QueryActions.CLICK, null));
+    }
+
+    @Test
+    public void scriptFailuresIdentifyTheActionThatFailed() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver(true);
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(Arrays.asList(1L, "no such element"));
+        Query username = new Query().defaultLocator(By.id("username")).usingDriver(mockedWebDriver);
+        Query password = new Query().defaultLocator(By.id("password")).usingDriver(mockedWebDriver);
+
+        try {
+            new QueryActions().type(username, "bob").type(password, "secret").perform();
+            fail("Expected a QueryActionException");
+        } catch (QueryActionException e) {
+            assertThat(e.getStep()).isEqualTo(1);
+            assertThat(e.getAction()).isEqualTo(QueryActions.TYPE);
+            assertThat(e.getQuery()).isSameAs(password);
+            assertThat(e.getLocator()).isEqualTo(By.id("password"));
+            assertThat(e.getReason()).isEqualTo("no such element");
+        }
+    }
+
+    @Test
+    public void scriptsThatCannotBeRunIdentifyTheFirstActionInTheScript() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver(true);
+        when(mockedWebDriver.executeScript(anyString(), any())).thenThrow(new JavascriptException("javascript error: boom\nBuild info: ..."));
+        Query username = new Query().defaultLocator(By.id("username")).usingDriver(mockedWebDriver);
+        Query password = new Query().defaultLocator(By.id("password")).usingDriver(mockedWebDriver);
+
+        try {
+            new QueryActions().type(username, "bob").type(password, "secret").perform();
+            fail("Expected a QueryActionException");
+        } catch (QueryActionException e) {
+            assertThat(e.getStep()).isEqualTo(0);
+            assertThat(e.getQuery()).isSameAs(username);
+            assertThat(e.getReason()).isEqualTo("javascript error: boom");
+            assertThat(e.getCause()).isInstanceOf(JavascriptException.class);
+        }
+    }
+
+    @Test
+    public void driversThatCannotRunScriptsPerformEachActionNatively() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver(false);
+        WebElement usernameElement = mock(WebElement.class);
+        WebElement submitElement = mock(WebElement.class);
+        when(mockedWebDriver.findElement(By.id("username"))).thenReturn(usernameElement);
+        when(mockedWebDriver.findElement(By.id("submit"))).thenReturn(submitElement);
+        Query username = new Query().defaultLocator(By.id("username")).usingDriver(mockedWebDriver);
+        Query submit = new Query().defaultLocator(By.id("submit")).usingDriver(mockedWebDriver);
+
+        new QueryActions().type(username, "bob").click(submit).perform();
+
+        verify(usernameElement).clear();
+        verify(usernameElement).sendKeys("bob");
+        verify(submitElement).click();
+        verify(mockedWebDriver, never()).executeScript(anyString(), any());
+    }
+
+    @Test
+    public void untranslatableLocatorsSplitTheScriptAndKeepTheOrder() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver(true);
+        WebElement linkElement = mock(WebElement.class);
+        when(mockedWebDriver.findElement(By.linkText("Next"))).thenReturn(linkElement);
+        Query username = new Query().defaultLocator(By.id("username")).usingDriver(mockedWebDriver);
+        Query next = new Query().defaultLocator(By.linkText("Next")).usingDriver(mockedWebDriver);
+        Query password = new Query().defaultLocator(By.id("password")).usingDriver(mockedWebDriver);
+
+        new QueryActions().type(username, "bob").click(next).type(password, "secret").perform();
+
+        verify(linkElement).click();
+        verify(mockedWebDriver, times(2)).executeScript(anyString(), any());
+    }
+
+    @Test
+    public void nativeFailuresIdentifyTheActionThatFailed() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver(false);
+        WebElement submitElement = mock(WebElement.class);
+        doThrow(new ElementNotInteractableException("element not interactable")).when(submitElement).click();
+        when(mockedWebDriver.findElement(By.id("submit"))).thenReturn(submitElement);
+        Query submit = new Query().defaultLocator(By.id("submit")).usingDriver(mockedWebDriver);
+
+        try {
+            new QueryActions().click(submit).perform();
+            fail("Expected a QueryActionException");
+        } catch (QueryActionException e) {
+            assertThat(e.getStep()).isEqualTo(0);
+            assertThat(e.getReason()).isEqualTo("element not interactable");
+            assertThat(e.getCause()).isInstanceOf(ElementNotInteractableException.class);
+        }
+    }
+}
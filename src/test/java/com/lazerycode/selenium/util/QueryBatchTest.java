@@ -0,0 +1,71 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryBatchTest {
+
+    private static final WebElement FIRST_ELEMENT = mock(WebElement.class);
+    private static final WebElement SECOND_ELEMENT = mock(WebElement.class);
+    private static final WebElement LINK_ELEMENT = mock(WebElement.class);
+
+    @Test
+    public void translatableLocatorsAreFoundWithASingleScript() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(Arrays.asList(FIRST_ELEMENT, SECOND_ELEMENT));
+        Query first = new Query().defaultLocator(By.id("foo")).usingDriver(mockedWebDriver);
+        Query second = new Query().defaultLocator(By.xpath("//bar")).usingDriver(mockedWebDriver);
+
+        List<WebElement> elements = QueryBatch.of(first, second).find();
+
+        assertThat(elements).containsExactly(FIRST_ELEMENT, SECOND_ELEMENT);
+        verify(mockedWebDriver, times(1)).executeScript(anyString(), any());
+        verify(mockedWebDriver, never()).findElement(any(By.class));
+    }
+
+    @Test
+    public void untranslatableLocatorsFallBackToTheDriver() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(Arrays.asList(FIRST_ELEMENT, SECOND_ELEMENT));
+        when(mockedWebDriver.findElement(By.linkText("link"))).thenReturn(LINK_ELEMENT);
+        Query first = new Query().defaultLocator(By.cssSelector("#foo")).usingDriver(mockedWebDriver);
+        Query link = new Query().defaultLocator(By.linkText("link")).usingDriver(mockedWebDriver);
+        Query second = new Query().defaultLocator(By.name("bar")).usingDriver(mockedWebDriver);
+
+        List<WebElement> elements = QueryBatch.of(first, link, second).find();
+
+        assertThat(elements).containsExactly(FIRST_ELEMENT, LINK_ELEMENT, SECOND_ELEMENT);
+        verify(mockedWebDriver, times(1)).executeScript(anyString(), any());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void throwsNoSuchElementExceptionIfAQueryDoesNotMatch() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(Arrays.asList(FIRST_ELEMENT, null));
+        Query first = new Query().defaultLocator(By.id("foo")).usingDriver(mockedWebDriver);
+        Query second = new Query().defaultLocator(By.id("bar")).usingDriver(mockedWebDriver);
+
+        QueryBatch.of(first, second).find();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void throwsIllegalStateExceptionIfAQueryHasNoDriver() {
+        QueryBatch.of(new Query().defaultLocator(By.id("foo"))).find();
+    }
+}
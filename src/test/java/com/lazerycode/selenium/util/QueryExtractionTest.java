@@ -0,0 +1,123 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryExtractionTest {
+
+    private static final String TABLE_HTML = "<table id='grid'><tbody>" +
+            "<tr><td>1</td><td>Alice</td></tr>" +
+            "<tr><td>2</td><td>Bob</td></tr>" +
+            "<tr><td>3</td></tr>" +
+            "</tbody></table>";
+
+    @Test
+    public void textsAreReadWithASingleScript() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(Arrays.asList("one", "two"));
+        Query query = new Query().defaultLocator(By.cssSelector("li")).usingDriver(mockedWebDriver);
+
+        assertThat(query.texts()).containsExactly("one", "two");
+        verify(mockedWebDriver, times(1)).executeScript(anyString(), any());
+        verify(mockedWebDriver, never()).findElements(any(By.class));
+    }
+
+    @Test
+    public void textsFallBackToTheDriverForUntranslatableLocators() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        WebElement link = mock(WebElement.class);
+        when(link.getText()).thenReturn("Help");
+        when(mockedWebDriver.findElements(By.linkText("Help"))).thenReturn(Collections.singletonList(link));
+        Query query = new Query().defaultLocator(By.linkText("Help")).usingDriver(mockedWebDriver);
+
+        assertThat(query.texts()).containsExactly("Help");
+        verify(mockedWebDriver, never()).executeScript(anyString(), any());
+    }
+
+    @Test
+    public void attributesAreReturnedAsOneMapPerElement() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(Arrays.asList(Arrays.asList("/a", null), Arrays.asList("/b", "_blank")));
+        Query query = new Query().defaultLocator(By.tagName("a")).usingDriver(mockedWebDriver);
+
+        List<Map<String, String>> attributes = query.attributes("href", "target");
+
+        Map<String, String> first = new HashMap<>();
+        first.put("href", "/a");
+        first.put("target", null);
+        Map<String, String> second = new HashMap<>();
+        second.put("href", "/b");
+        second.put("target", "_blank");
+        assertThat(attributes).containsExactly(first, second);
+    }
+
+    @Test
+    public void statesAreReadWithASingleScript() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(Collections.singletonList(Arrays.asList(true, false, true, 10L, 20L, 30L, 40L)));
+        Query query = new Query().defaultLocator(By.id("foo")).usingDriver(mockedWebDriver);
+
+        assertThat(query.states()).containsExactly(new ElementState(true, false, true, new Rectangle(10, 20, 40, 30)));
+    }
+
+    @Test
+    public void largeTablesAreReadInChunks() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(
+                tableChunk(2, 3, Arrays.asList("1", "2"), Arrays.asList("Alice", "Bob")),
+                tableChunk(1, 3, Collections.singletonList("3")));
+        Query table = new Query().defaultLocator(By.id("grid")).usingDriver(mockedWebDriver);
+
+        List<QueryTable> chunks = table.tableChunks(new Query().defaultLocator(By.tagName("tr")), new Query().defaultLocator(By.tagName("td")), 2)
+                .collect(Collectors.toList());
+
+        assertThat(chunks).hasSize(2);
+        verify(mockedWebDriver, times(2)).executeScript(anyString(), any());
+        QueryTable whole = QueryTable.concat(chunks);
+        assertThat(whole.getRowCount()).isEqualTo(3);
+        assertThat(whole.getColumn(0)).containsExactly("1", "2", "3");
+        assertThat(whole.getColumn(1)).containsExactly("Alice", "Bob", null);
+    }
+
+    @Test
+    public void tablesCanBeReadWithoutScripts() {
+        Query table = new Query().defaultLocator(By.id("grid")).usingDriver(SnapshotDriver.of(BrowserType.FIREFOX, TABLE_HTML));
+
+        QueryTable result = table.table(new Query().defaultLocator(By.cssSelector("tbody tr")), new Query().defaultLocator(By.xpath("./td")));
+
+        assertThat(result.getRowCount()).isEqualTo(3);
+        assertThat(result.getColumnCount()).isEqualTo(2);
+        assertThat(result.getRow(1)).containsExactly("2", "Bob");
+        assertThat(result.getCell(2, 1)).isNull();
+    }
+
+    private Map<String, Object> tableChunk(int rows, int total, List<?>... columns) {
+        Map<String, Object> chunk = new HashMap<>();
+        chunk.put("rows", (long) rows);
+        chunk.put("total", (long) total);
+        chunk.put("columns", Arrays.asList(columns));
+
+        return chunk;
+    }
+}
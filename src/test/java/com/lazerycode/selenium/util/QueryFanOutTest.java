@@ -0,0 +1,119 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QueryFanOutTest {
+
+    private static final WebElement CHROME_ELEMENT = mock(WebElement.class);
+    private static final WebElement FIREFOX_ELEMENT = mock(WebElement.class);
+
+    @Test
+    public void eachDriverGetsItsOwnLocator() {
+        RemoteWebDriver chrome = mockedDriver(BrowserType.GOOGLECHROME);
+        RemoteWebDriver firefox = mockedDriver(BrowserType.FIREFOX);
+        when(chrome.findElement(By.id("chrome"))).thenReturn(CHROME_ELEMENT);
+        when(firefox.findElement(By.id("default"))).thenReturn(FIREFOX_ELEMENT);
+        Query query = new Query().defaultLocator(By.id("default"))
+                .addSpecificLocator(BrowserType.GOOGLECHROME, By.id("chrome"))
+                .usingDrivers(chrome, firefox);
+
+        List<DriverResult<WebElement>> results = query.findAcrossDrivers();
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getDriver()).isSameAs(chrome);
+        assertThat(results.get(0).getLocator()).isEqualTo(By.id("chrome"));
+        assertThat(results.get(0).get()).isEqualTo(CHROME_ELEMENT);
+        assertThat(results.get(1).getDriver()).isSameAs(firefox);
+        assertThat(results.get(1).getLocator()).isEqualTo(By.id("default"));
+        assertThat(results.get(1).get()).isEqualTo(FIREFOX_ELEMENT);
+    }
+
+    @Test
+    public void locatorsAddedAfterBindingAreUsed() {
+        RemoteWebDriver chrome = mockedDriver(BrowserType.GOOGLECHROME);
+        Query query = new Query().defaultLocator(By.id("default")).usingDrivers(chrome);
+
+        query.addSpecificLocator(BrowserType.GOOGLECHROME, By.id("chrome"));
+
+        assertThat(query.forDriver(chrome).by()).isEqualTo(By.id("chrome"));
+    }
+
+    @Test
+    public void aFailureIsRecordedAgainstItsDriverOnly() {
+        RemoteWebDriver chrome = mockedDriver(BrowserType.GOOGLECHROME);
+        RemoteWebDriver firefox = mockedDriver(BrowserType.FIREFOX);
+        when(chrome.findElement(By.id("foo"))).thenThrow(new NoSuchElementException("foo"));
+        when(firefox.findElement(By.id("foo"))).thenReturn(FIREFOX_ELEMENT);
+        Query query = new Query().defaultLocator(By.id("foo")).usingDrivers(chrome, firefox);
+
+        List<DriverResult<WebElement>> results = query.findAcrossDrivers();
+
+        assertThat(results.get(0).isSuccess()).isFalse();
+        assertThat(results.get(0).getFailure()).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> results.get(0).get()).isInstanceOf(NoSuchElementException.class);
+        assertThat(results.get(1).isSuccess()).isTrue();
+        assertThat(results.get(1).get()).isEqualTo(FIREFOX_ELEMENT);
+        assertThat(results.get(1).getDurationNanos()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    public void aDriverWithoutALocatorIsRecordedAgainstThatDriverOnly() {
+        RemoteWebDriver chrome = mockedDriver(BrowserType.GOOGLECHROME);
+        RemoteWebDriver firefox = mockedDriver(BrowserType.FIREFOX);
+        when(chrome.findElement(By.id("chrome"))).thenReturn(CHROME_ELEMENT);
+        Query query = new Query().addSpecificLocator(BrowserType.GOOGLECHROME, By.id("chrome")).usingDrivers(chrome, firefox);
+
+        List<DriverResult<WebElement>> results = query.findAcrossDrivers();
+
+        assertThat(results.get(0).get()).isEqualTo(CHROME_ELEMENT);
+        assertThat(results.get(1).getDriver()).isSameAs(firefox);
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(results.get(1).getFailure()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void driversAreQueriedConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        RemoteWebDriver chrome = mockedDriver(BrowserType.GOOGLECHROME);
+        RemoteWebDriver firefox = mockedDriver(BrowserType.FIREFOX);
+        when(chrome.findElement(By.id("foo"))).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS) ? CHROME_ELEMENT : null;
+        });
+        when(firefox.findElement(By.id("foo"))).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS) ? FIREFOX_ELEMENT : null;
+        });
+        Query query = new Query().defaultLocator(By.id("foo")).usingDrivers(chrome, firefox);
+
+        List<DriverResult<WebElement>> results = query.findAcrossDrivers();
+
+        assertThat(results.get(0).get()).isEqualTo(CHROME_ELEMENT);
+        assertThat(results.get(1).get()).isEqualTo(FIREFOX_ELEMENT);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void findAcrossDriversRequiresDrivers() {
+        new Query().defaultLocator(By.id("foo")).findAcrossDrivers();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void forDriverRejectsUnknownDrivers() {
+        new Query().defaultLocator(By.id("foo")).forDriver(mockedDriver(BrowserType.FIREFOX));
+    }
+}
@@ -0,0 +1,172 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryLocationTest {
+
+    private static final By LOCATOR = By.id("foo");
+    private static final By FRAMES = By.cssSelector("iframe,frame");
+    private static final WebElement ELEMENT = mock(WebElement.class);
+    private static final WebElement FRAME = mock(WebElement.class);
+    private static final WebElement SHADOW_HOST = mock(WebElement.class);
+
+    @Test
+    public void searchFramesRemembersWhereTheElementWasFound() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        WebDriver.TargetLocator targetLocator = mockedWebDriver.switchTo();
+        when(mockedWebDriver.findElements(FRAMES)).thenReturn(Arrays.asList(FRAME, FRAME)).thenReturn(Collections.emptyList());
+        when(mockedWebDriver.findElements(LOCATOR))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.singletonList(ELEMENT));
+        Query query = new Query().defaultLocator(LOCATOR).searchFrames(true).usingDriver(mockedWebDriver);
+
+        assertThat(query.findWebElement()).isEqualTo(ELEMENT);
+        assertThat(query.getFrameScans()).isEqualTo(1);
+        verify(targetLocator, times(1)).frame(0);
+        verify(targetLocator, times(1)).frame(1);
+
+        assertThat(query.findWebElement()).isEqualTo(ELEMENT);
+        assertThat(query.getFrameScans()).isEqualTo(1);
+        verify(targetLocator, times(1)).frame(0);
+        verify(targetLocator, times(2)).frame(1);
+        verify(mockedWebDriver, times(4)).findElements(LOCATOR);
+    }
+
+    @Test
+    public void searchFramesScansAgainOnAMiss() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        when(mockedWebDriver.findElements(FRAMES)).thenReturn(Collections.emptyList());
+        when(mockedWebDriver.findElements(LOCATOR))
+                .thenReturn(Collections.singletonList(ELEMENT))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.singletonList(ELEMENT));
+        Query query = new Query().defaultLocator(LOCATOR).searchFrames(true).usingDriver(mockedWebDriver);
+
+        query.findWebElement();
+        query.findWebElement();
+
+        assertThat(query.getFrameScans()).isEqualTo(2);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void searchFramesThrowsIfNoFrameMatches() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        when(mockedWebDriver.findElements(FRAMES)).thenReturn(Collections.emptyList());
+        when(mockedWebDriver.findElements(LOCATOR)).thenReturn(Collections.emptyList());
+
+        new Query().defaultLocator(LOCATOR).searchFrames(true).usingDriver(mockedWebDriver).findWebElement();
+    }
+
+    @Test
+    public void inFrameFollowsTheFramePath() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        WebDriver.TargetLocator targetLocator = mockedWebDriver.switchTo();
+        when(mockedWebDriver.findElements(By.id("editor"))).thenReturn(Collections.singletonList(FRAME));
+        when(mockedWebDriver.findElements(LOCATOR)).thenReturn(Collections.singletonList(ELEMENT));
+        Query query = new Query().defaultLocator(LOCATOR).inFrame(By.id("editor")).usingDriver(mockedWebDriver);
+
+        assertThat(query.findWebElement()).isEqualTo(ELEMENT);
+        verify(targetLocator, times(1)).defaultContent();
+        verify(targetLocator, times(1)).frame(FRAME);
+    }
+
+    @Test
+    public void inFrameRemembersTheFramesOnThePath() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        WebDriver.TargetLocator targetLocator = mockedWebDriver.switchTo();
+        when(mockedWebDriver.findElements(By.id("editor"))).thenReturn(Collections.singletonList(FRAME));
+        when(mockedWebDriver.findElements(LOCATOR)).thenReturn(Collections.singletonList(ELEMENT));
+        Query query = new Query().defaultLocator(LOCATOR).inFrame(By.id("editor")).usingDriver(mockedWebDriver);
+
+        query.findWebElement();
+        query.findWebElement();
+
+        assertThat(query.getFrameScans()).isEqualTo(1);
+        verify(mockedWebDriver, times(1)).findElements(By.id("editor"));
+        verify(targetLocator, times(2)).frame(FRAME);
+    }
+
+    @Test
+    public void inFrameWalksThePathAgainIfAFrameHasGone() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        WebDriver.TargetLocator targetLocator = mockedWebDriver.switchTo();
+        WebElement replacement = mock(WebElement.class);
+        when(mockedWebDriver.findElements(By.id("editor"))).thenReturn(Collections.singletonList(FRAME)).thenReturn(Collections.singletonList(replacement));
+        when(targetLocator.frame(FRAME)).thenReturn(mockedWebDriver).thenThrow(new StaleElementReferenceException("gone"));
+        when(mockedWebDriver.findElements(LOCATOR)).thenReturn(Collections.singletonList(ELEMENT));
+        Query query = new Query().defaultLocator(LOCATOR).inFrame(By.id("editor")).usingDriver(mockedWebDriver);
+
+        query.findWebElement();
+        query.findWebElement();
+
+        assertThat(query.getFrameScans()).isEqualTo(2);
+        verify(targetLocator, times(1)).frame(replacement);
+    }
+
+    @Test
+    public void inFrameFindsNothingIfAFrameOnThePathIsMissing() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        when(mockedWebDriver.findElements(By.id("editor"))).thenReturn(Collections.emptyList());
+        Query query = new Query().defaultLocator(LOCATOR).inFrame(By.id("editor")).usingDriver(mockedWebDriver);
+
+        assertThat(query.isPresent()).isFalse();
+        assertThat(query.findAll()).isEmpty();
+        assertThatThrownBy(query::findWebElement).isInstanceOf(NoSuchElementException.class);
+        verify(mockedWebDriver, never()).findElements(LOCATOR);
+    }
+
+    @Test
+    public void pierceShadowRootsPassesTheLastShadowHostBack() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        when(mockedWebDriver.executeScript(anyString(), any())).thenReturn(Arrays.asList(Collections.singletonList(ELEMENT), SHADOW_HOST));
+        Query query = new Query().defaultLocator(LOCATOR).pierceShadowRoots(true).usingDriver(mockedWebDriver);
+
+        assertThat(query.findWebElement()).isEqualTo(ELEMENT);
+        assertThat(query.findAll()).containsExactly(ELEMENT);
+
+        verify(mockedWebDriver, times(1)).executeScript(anyString(), eq("*[id=\"foo\"]"), isNull());
+        verify(mockedWebDriver, times(1)).executeScript(anyString(), eq("*[id=\"foo\"]"), eq(SHADOW_HOST));
+        verify(mockedWebDriver, never()).findElements(any(By.class));
+    }
+
+    @Test
+    public void pierceShadowRootsFallsBackForUntranslatableLocators() {
+        RemoteWebDriver mockedWebDriver = mockedFramesDriver();
+        when(mockedWebDriver.findElements(By.linkText("foo"))).thenReturn(Collections.singletonList(ELEMENT));
+        Query query = new Query().defaultLocator(By.linkText("foo")).pierceShadowRoots(true).usingDriver(mockedWebDriver);
+
+        assertThat(query.findWebElement()).isEqualTo(ELEMENT);
+        verify(mockedWebDriver, never()).executeScript(anyString(), any());
+    }
+
+    private RemoteWebDriver mockedFramesDriver() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        WebDriver.TargetLocator targetLocator = mock(WebDriver.TargetLocator.class);
+        when(mockedWebDriver.switchTo()).thenReturn(targetLocator);
+
+        return mockedWebDriver;
+    }
+}
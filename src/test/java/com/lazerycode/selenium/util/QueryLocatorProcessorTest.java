@@ -0,0 +1,100 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryLocatorProcessorTest {
+
+    @Test
+    public void generatedBinderCreatesAnnotatedQueriesAndAssignsTheDriver() {
+        RemoteWebDriver chrome = mockedDriver(BrowserType.CHROME);
+        AnnotatedPageObject pageObject = new AnnotatedPageObject();
+
+        new AnnotatedPageObject_QueryBinder().bind(pageObject, chrome);
+
+        assertThat(pageObject.username.by()).isEqualTo(By.id("username"));
+        assertThat(pageObject.password.by()).isEqualTo(By.name("password"));
+        assertThat(pageObject.plain.by()).isEqualTo(By.id("plain"));
+        assertThat(pageObject.list.get(1).by()).isEqualTo(By.id("second"));
+        assertThat(pageObject.component.help).isNotNull();
+    }
+
+    @Test
+    public void initQueryObjectsUsesTheGeneratedBinder() {
+        RemoteWebDriver firefox = mockedDriver(BrowserType.FIREFOX);
+        AnnotatedPageObject pageObject = new AnnotatedPageObject();
+
+        AssignDriver.initQueryObjects(pageObject, firefox);
+
+        assertThat(pageObject.username.by()).isEqualTo(By.id("username"));
+        assertThat(pageObject.password.by()).isEqualTo(By.cssSelector("#password"));
+        assertThat(pageObject.component.help.by()).isEqualTo(By.linkText("Help"));
+    }
+
+    @Test
+    public void subclassesAreBoundToo() {
+        RemoteWebDriver firefox = mockedDriver(BrowserType.FIREFOX);
+        AnnotatedPageObject.Extended pageObject = new AnnotatedPageObject.Extended();
+
+        AssignDriver.initQueryObjects(pageObject, firefox);
+
+        assertThat(pageObject.username.by()).isEqualTo(By.id("username"));
+        assertThat(pageObject.extra.by()).isEqualTo(By.id("extra"));
+    }
+
+    @Test
+    public void invalidLocatorsAreReportedAtCompileTime() throws Exception {
+        List<String> errors = compile("package example;\n" +
+                "import com.lazerycode.selenium.util.Query;\n" +
+                "import com.lazerycode.selenium.util.QueryLocator;\n" +
+                "public class BadPage {\n" +
+                "    @QueryLocator(\"username\") Query noStrategy;\n" +
+                "    @QueryLocator(\"id=ok\") private Query hidden;\n" +
+                "}\n");
+
+        assertThat(errors).hasSize(2);
+        assertThat(errors.get(0)).contains("must start with one of id=");
+        assertThat(errors.get(1)).contains("must not be private");
+    }
+
+    private List<String> compile(String source) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        File output = Files.createTempDirectory("query-processor").toFile();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///example/BadPage.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        List<String> options = Arrays.asList("-d", output.getPath(), "-s", output.getPath(),
+                "-classpath", System.getProperty("java.class.path"), "-processor", QueryLocatorProcessor.class.getName());
+        compiler.getTask(null, fileManager, diagnostics, options, null, Collections.singletonList(file)).call();
+
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+}
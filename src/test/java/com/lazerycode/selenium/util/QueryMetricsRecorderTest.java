@@ -0,0 +1,108 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.BrowserType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QueryMetricsRecorderTest {
+
+    private static final By DEFAULT_LOCATOR = By.id("foo");
+    private static final By MISSING_LOCATOR = By.id("missing");
+
+    private final QueryMetricsRecorder recorder = new QueryMetricsRecorder();
+
+    @After
+    public void removeListeners() {
+        QueryListeners.clear();
+    }
+
+    @Test
+    public void recordsSuccessfulAndFailedLookups() {
+        QueryListeners.register(recorder);
+        RemoteWebDriver mockedWebDriver = mockedDriverWithElements();
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+        Query missing = new Query().defaultLocator(MISSING_LOCATOR).usingDriver(mockedWebDriver);
+
+        query.find();
+        query.findAll();
+        try {
+            missing.find();
+        } catch (NoSuchElementException ignored) {
+        }
+
+        List<QueryMetricsRecorder.LocatorMetrics> metrics = recorder.getMetrics();
+        assertThat(metrics).hasSize(2);
+        QueryMetricsRecorder.LocatorMetrics found = metricsFor(DEFAULT_LOCATOR);
+        assertThat(found.getBrowserType()).isEqualTo(BrowserType.GOOGLECHROME);
+        assertThat(found.getLookups()).isEqualTo(2);
+        assertThat(found.getElementsFound()).isEqualTo(3);
+        assertThat(found.getFailures()).isEqualTo(0);
+        QueryMetricsRecorder.LocatorMetrics failed = metricsFor(MISSING_LOCATOR);
+        assertThat(failed.getFailures()).isEqualTo(1);
+        assertThat(failed.getFailureTypes()).containsKey(NoSuchElementException.class.getName());
+    }
+
+    @Test
+    public void percentilesAreAccurateToTheHistogramResolution() {
+        for (int i = 1; i <= 100; i++) {
+            recorder.onFind(null, DEFAULT_LOCATOR, BrowserType.GOOGLECHROME, i * 1_000_000L, 1, null);
+        }
+
+        QueryMetricsRecorder.LocatorMetrics metrics = metricsFor(DEFAULT_LOCATOR);
+        assertThat(metrics.percentileNanos(50)).isBetween(50_000_000L, 57_000_000L);
+        assertThat(metrics.percentileNanos(99)).isBetween(99_000_000L, 100_000_000L);
+        assertThat(metrics.percentileNanos(100)).isEqualTo(100_000_000L);
+        assertThat(metrics.getMaxNanos()).isEqualTo(100_000_000L);
+    }
+
+    @Test
+    public void exportsCsvAndJson() {
+        recorder.onFind(null, DEFAULT_LOCATOR, BrowserType.GOOGLECHROME, 2_000_000L, 1, null);
+
+        assertThat(recorder.toCsv()).isEqualTo("locator,browserType,lookups,failures,elements,p50Millis,p90Millis,p99Millis,maxMillis,failureTypes\n" +
+                "\"By.id: foo\",\"googlechrome\",1,0,1,2.000,2.000,2.000,2.000,\"\"\n");
+        assertThat(recorder.toJson()).isEqualTo("[\n  {\"locator\": \"By.id: foo\", \"browserType\": \"googlechrome\", \"lookups\": 1, \"failures\": 0, \"elements\": 1, " +
+                "\"p50Millis\": 2.000, \"p90Millis\": 2.000, \"p99Millis\": 2.000, \"maxMillis\": 2.000, \"failureTypes\": {}}\n]");
+    }
+
+    @Test
+    public void listenersAreNotNotifiedOnceUnregistered() {
+        QueryListeners.register(recorder);
+        QueryListeners.unregister(recorder);
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedDriverWithElements());
+
+        query.find();
+
+        assertThat(recorder.getMetrics()).isEmpty();
+    }
+
+    private QueryMetricsRecorder.LocatorMetrics metricsFor(By locator) {
+        for (QueryMetricsRecorder.LocatorMetrics metrics : recorder.getMetrics()) {
+            if (metrics.getLocator().equals(locator)) {
+                return metrics;
+            }
+        }
+        throw new AssertionError("No metrics recorded for " + locator);
+    }
+
+    private RemoteWebDriver mockedDriverWithElements() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(DEFAULT_LOCATOR)).thenReturn(mock(WebElement.class));
+        when(mockedWebDriver.findElements(DEFAULT_LOCATOR)).thenReturn(Arrays.asList(mock(WebElement.class), mock(WebElement.class)));
+        when(mockedWebDriver.findElement(MISSING_LOCATOR)).thenThrow(new NoSuchElementException("missing"));
+
+        return mockedWebDriver;
+    }
+}
@@ -0,0 +1,124 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.lazerycode.selenium.util.MockedDrivers.mockedChromeDriver;
+import static com.lazerycode.selenium.util.AssignDriver.initQueryObjects;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryPrefetchTest {
+
+    private static final By USERNAME = By.id("username");
+    private static final By PASSWORD = By.id("password");
+    private static final By ROWS = By.linkText("rows");
+
+    public static class LoginPage {
+        Query username = new Query().defaultLocator(USERNAME);
+        Query password = new Query().defaultLocator(PASSWORD);
+        Query rows = new Query().defaultLocator(ROWS);
+        Query[] aliases = {username};
+    }
+
+    @Test
+    public void elementsAreFoundWithOneScriptCallWhenThePageIsBound() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        WebElement username = mock(WebElement.class);
+        WebElement password = mock(WebElement.class);
+        when(driver.executeScript(anyString(), any())).thenAnswer(invocation -> Arrays.asList(username, password));
+        LoginPage page = new LoginPage();
+
+        initQueryObjects(page, driver, true);
+
+        assertThat(((WrapsElement) page.username.findWebElement()).getWrappedElement()).isSameAs(username);
+        assertThat(((WrapsElement) page.password.findWebElement()).getWrappedElement()).isSameAs(password);
+        assertThat(page.username.getPrefetchHits()).isEqualTo(1);
+        assertThat(page.username.getCacheHits()).isEqualTo(0);
+        verify(driver, times(1)).executeScript(anyString(), any());
+        verify(driver, never()).findElement(any(By.class));
+    }
+
+    @Test
+    public void prefetchedElementsAreOnlyUsedOnceUnlessCachingIsEnabled() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        WebElement username = mock(WebElement.class);
+        when(driver.executeScript(anyString(), any())).thenAnswer(invocation -> Arrays.asList(username, null));
+        when(driver.findElement(USERNAME)).thenReturn(username);
+        when(driver.findElement(PASSWORD)).thenReturn(mock(WebElement.class));
+        LoginPage page = new LoginPage();
+        page.password.cacheElement(true);
+
+        initQueryObjects(page, driver, true);
+        page.username.findWebElement();
+        page.username.findWebElement();
+        page.password.findWebElement();
+
+        verify(driver, times(1)).findElement(USERNAME);
+        verify(driver, times(1)).findElement(PASSWORD);
+    }
+
+    @Test
+    public void stalePrefetchedElementsAreLocatedAgain() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        WebElement stale = mock(WebElement.class);
+        WebElement fresh = mock(WebElement.class);
+        when(stale.getText()).thenThrow(new StaleElementReferenceException("stale"));
+        when(fresh.getText()).thenReturn("fresh");
+        when(driver.executeScript(anyString(), any())).thenAnswer(invocation -> Arrays.asList(stale, stale));
+        when(driver.findElement(USERNAME)).thenReturn(fresh);
+        LoginPage page = new LoginPage();
+
+        initQueryObjects(page, driver, true);
+
+        assertThat(page.username.findWebElement().getText()).isEqualTo("fresh");
+    }
+
+    @Test
+    public void commandsSentThroughAQueryWaitForThePrefetchToFinish() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        List<String> commands = Collections.synchronizedList(new ArrayList<>());
+        when(driver.executeScript(anyString(), any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            commands.add("prefetch");
+            return Arrays.asList(null, null);
+        });
+        when(driver.findElements(ROWS)).thenAnswer(invocation -> {
+            commands.add("findElements");
+            return Collections.emptyList();
+        });
+        LoginPage page = new LoginPage();
+
+        initQueryObjects(page, driver, true);
+        page.rows.findWebElements();
+
+        assertThat(commands).containsExactly("prefetch", "findElements");
+    }
+
+    @Test
+    public void nothingIsPrefetchedUnlessAskedFor() {
+        RemoteWebDriver driver = mockedChromeDriver();
+        LoginPage page = new LoginPage();
+
+        initQueryObjects(page, driver, false);
+        page.username.findWebElement();
+
+        verify(driver, never()).executeScript(anyString(), any());
+        verify(driver).findElement(USERNAME);
+    }
+}
@@ -7,16 +7,28 @@ import org.junit.Test;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.Platform;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.BrowserType;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.ui.Select;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.openqa.selenium.remote.CapabilityType.PLATFORM_NAME;
 
@@ -285,4 +297,303 @@ public class QueryTest {
         Query query = new Query().addSpecificLocator(BrowserType.GOOGLECHROME, CHROME_LOCATOR).usingDriver(mockedWebDriver);
         query.by();
     }
+
+    @Test
+    public void cachedElementIsOnlyLocatedOnce() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        WebElement mockedElement = mock(WebElement.class);
+        when(mockedElement.getText()).thenReturn("cached");
+        when(mockedWebDriver.findElement(DEFAULT_LOCATOR)).thenReturn(mockedElement);
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).cacheElement(true).usingDriver(mockedWebDriver);
+        query.find();
+        query.findWebElement();
+
+        assertThat(query.find().getText()).isEqualTo("cached");
+        assertThat(query.getCacheMisses()).isEqualTo(1);
+        assertThat(query.getCacheHits()).isEqualTo(2);
+        verify(mockedWebDriver, times(1)).findElement(DEFAULT_LOCATOR);
+    }
+
+    @Test
+    public void staleCachedElementIsLocatedAgainAndRetried() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        WebElement staleElement = mock(WebElement.class);
+        WebElement freshElement = mock(WebElement.class);
+        when(staleElement.getText()).thenThrow(new StaleElementReferenceException("stale"));
+        when(freshElement.getText()).thenReturn("fresh");
+        when(mockedWebDriver.findElement(DEFAULT_LOCATOR)).thenReturn(staleElement, freshElement);
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).cacheElement(true).usingDriver(mockedWebDriver);
+
+        assertThat(query.find().getText()).isEqualTo("fresh");
+        assertThat(query.find().getText()).isEqualTo("fresh");
+        assertThat(query.getCacheMisses()).isEqualTo(2);
+        assertThat(query.getCacheHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidateAndUsingDriverClearTheElementCache() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(DEFAULT_LOCATOR)).thenReturn(MOCKED_WEB_ELEMENT_FOR_DEFAULT);
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).cacheElement(true).usingDriver(mockedWebDriver);
+        query.find();
+        query.invalidate().find();
+        query.usingDriver(mockedWebDriver).find();
+
+        assertThat(query.getCacheMisses()).isEqualTo(3);
+        assertThat(query.getCacheHits()).isEqualTo(0);
+    }
+
+    @Test
+    public void elementIsNotCachedByDefault() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElement(DEFAULT_LOCATOR)).thenReturn(MOCKED_WEB_ELEMENT_FOR_DEFAULT);
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+        query.find();
+        query.find();
+
+        assertThat(query.getCacheMisses()).isEqualTo(0);
+        verify(mockedWebDriver, times(2)).findElement(DEFAULT_LOCATOR);
+    }
+
+    @Test
+    public void awaitPresentWaitsInsideTheBrowser() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        HashMap<String, Object> outcome = new HashMap<>();
+        outcome.put("met", true);
+        outcome.put("value", MOCKED_WEB_ELEMENT_FOR_DEFAULT);
+        when(mockedWebDriver.executeAsyncScript(anyString(), any())).thenReturn(outcome);
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+
+        assertThat(query.awaitPresent(Duration.ofSeconds(5))).isEqualTo(MOCKED_WEB_ELEMENT_FOR_DEFAULT);
+        verify(mockedWebDriver, never()).findElements(any(By.class));
+    }
+
+    @Test
+    public void awaitVisibleFallsBackToPollingIfAsyncScriptsAreNotSupported() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        WebElement mockedElement = mock(WebElement.class);
+        when(mockedElement.isDisplayed()).thenReturn(false, true);
+        when(mockedWebDriver.executeAsyncScript(anyString(), any())).thenThrow(new UnsupportedCommandException("unsupported"));
+        when(mockedWebDriver.findElements(DEFAULT_LOCATOR)).thenReturn(Collections.singletonList(mockedElement));
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+
+        assertThat(query.awaitVisible(Duration.ofSeconds(5))).isEqualTo(mockedElement);
+        verify(mockedWebDriver, times(2)).findElements(DEFAULT_LOCATOR);
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void awaitGoneThrowsTimeoutExceptionIfElementsRemain() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.findElements(By.linkText("foo"))).thenReturn(MOCKED_WEB_ELEMENT_LIST_FOR_DEFAULT);
+
+        Query query = new Query().defaultLocator(By.linkText("foo")).usingDriver(mockedWebDriver);
+        query.awaitGone(Duration.ofMillis(200));
+    }
+
+    @Test
+    public void awaitCountReturnsTheMatchingElements() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        HashMap<String, Object> outcome = new HashMap<>();
+        outcome.put("met", true);
+        outcome.put("value", MOCKED_WEB_ELEMENT_LIST_FOR_DEFAULT);
+        when(mockedWebDriver.executeAsyncScript(anyString(), any())).thenReturn(outcome);
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+
+        assertThat(query.awaitCount(1, Duration.ofSeconds(5))).isEqualTo(MOCKED_WEB_ELEMENT_LIST_FOR_DEFAULT);
+    }
+
+    @Test
+    public void capabilityRuleLocatorIsUsedWhenAllCapabilitiesMatch() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.getCapabilities().getCapability("version")).thenReturn("79.0.3945.88");
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR)
+                .addSpecificLocator(new CapabilityRule().browser(BrowserType.GOOGLECHROME).versionBetween("70", "79").platform("MAC"), CHROME_LOCATOR)
+                .addSpecificLocator(new CapabilityRule().browser(BrowserType.GOOGLECHROME).versionBetween("80", null), FIREFOX_LOCATOR)
+                .usingDriver(mockedWebDriver);
+
+        assertThat(query.by()).isEqualTo(CHROME_LOCATOR);
+    }
+
+    @Test
+    public void mostSpecificCapabilityRuleWins() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        By mostSpecific = By.id("specific");
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR)
+                .addSpecificLocator(new CapabilityRule().browser(BrowserType.GOOGLECHROME).platform(Platform.YOSEMITE.name()), mostSpecific)
+                .addSpecificLocator(BrowserType.GOOGLECHROME, CHROME_LOCATOR)
+                .addSpecificLocator(new CapabilityRule().platform("MAC"), FIREFOX_LOCATOR)
+                .usingDriver(mockedWebDriver);
+
+        assertThat(query.by()).isEqualTo(mostSpecific);
+    }
+
+    @Test
+    public void capabilityRuleIsIgnoredIfAnyCapabilityDoesNotMatch() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR)
+                .addSpecificLocator(new CapabilityRule().browser(BrowserType.GOOGLECHROME).automationName("XCUITest"), CHROME_LOCATOR)
+                .usingDriver(mockedWebDriver);
+
+        assertThat(query.by()).isEqualTo(DEFAULT_LOCATOR);
+    }
+
+    @Test
+    public void capabilityRulesCannotBeChangedOnceRegistered() {
+        CapabilityRule chrome = new CapabilityRule().browser(BrowserType.GOOGLECHROME);
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).addSpecificLocator(chrome, CHROME_LOCATOR);
+
+        CapabilityRule firefox = chrome.browser(BrowserType.FIREFOX);
+
+        assertThat(firefox).isNotEqualTo(chrome);
+        assertThat(chrome).isEqualTo(new CapabilityRule().browser(BrowserType.GOOGLECHROME));
+        assertThat(query.usingDriver(mockedChromeDriver()).by()).isEqualTo(CHROME_LOCATOR);
+    }
+
+    @Test
+    public void driversWithoutABrowserNameUseTheDefaultLocator() {
+        Capabilities mockedCapabilities = mock(Capabilities.class);
+        when(mockedCapabilities.getCapability(PLATFORM_NAME)).thenReturn(Platform.YOSEMITE);
+        RemoteWebDriver mockedWebDriver = mock(RemoteWebDriver.class);
+        when(mockedWebDriver.getCapabilities()).thenReturn(mockedCapabilities);
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).addSpecificLocator(BrowserType.GOOGLECHROME, CHROME_LOCATOR);
+
+        assertThat(query.usingDriver(mockedWebDriver).by()).isEqualTo(DEFAULT_LOCATOR);
+    }
+
+    @Test
+    public void xpathLocatorsAreOnlyRewrittenWhenOptimisationIsEnabled() {
+        By xpath = By.xpath("//div[@id='foo']");
+
+        Query query = new Query().defaultLocator(xpath).usingDriver(mockedChromeDriver());
+        assertThat(query.by()).isEqualTo(xpath);
+
+        query.optimiseLocators(true);
+        assertThat(query.by()).isEqualTo(By.cssSelector("div[id=\"foo\"]"));
+    }
+
+    @Test
+    public void findFirstAndCountRunInsideTheBrowser() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        when(mockedWebDriver.executeScript(anyString(), eq("css"), eq("*[id=\"foo\"]"), eq(null), eq(0), eq(1))).thenReturn(MOCKED_WEB_ELEMENT_LIST_FOR_DEFAULT);
+        when(mockedWebDriver.executeScript(anyString(), eq("css"), eq("*[id=\"foo\"]"), eq(null), eq(-1), eq(0))).thenReturn(5000L);
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+
+        assertThat(query.findFirst(1)).isEqualTo(MOCKED_WEB_ELEMENT_LIST_FOR_DEFAULT);
+        assertThat(query.count()).isEqualTo(5000);
+        verify(mockedWebDriver, never()).findElements(any(By.class));
+    }
+
+    @Test
+    public void findPageAndCountFallBackToTheDriverForUntranslatableLocators() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        List<WebElement> elements = mockedElements(5);
+        when(mockedWebDriver.findElements(By.linkText("foo"))).thenReturn(elements);
+
+        Query query = new Query().defaultLocator(By.linkText("foo")).usingDriver(mockedWebDriver);
+
+        assertThat(query.findPage(3, 10)).isEqualTo(elements.subList(3, 5));
+        assertThat(query.findPage(10, 10)).isEqualTo(Collections.emptyList());
+        assertThat(query.count()).isEqualTo(5);
+        verify(mockedWebDriver, never()).executeScript(anyString(), any());
+    }
+
+    @Test
+    public void streamFetchesElementsOnePageAtATime() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        List<WebElement> firstPage = mockedElements(100);
+        List<WebElement> secondPage = mockedElements(20);
+        when(mockedWebDriver.executeScript(anyString(), eq("css"), eq("*[id=\"foo\"]"), eq(null), eq(0), eq(100))).thenReturn(firstPage);
+        when(mockedWebDriver.executeScript(anyString(), eq("css"), eq("*[id=\"foo\"]"), eq(null), eq(100), eq(100))).thenReturn(secondPage);
+
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+
+        assertThat(query.stream().findFirst().get()).isEqualTo(firstPage.get(0));
+        verify(mockedWebDriver, times(1)).executeScript(anyString(), any());
+        assertThat(query.stream().count()).isEqualTo(120);
+    }
+
+    @Test
+    public void childQueriesSearchInsideTheParentElementAndReuseIt() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        WebElement parentElement = mock(WebElement.class);
+        WebElement firstChild = mock(WebElement.class);
+        WebElement secondChild = mock(WebElement.class);
+        when(mockedWebDriver.findElement(DEFAULT_LOCATOR)).thenReturn(parentElement);
+        when(parentElement.findElement(By.id("first"))).thenReturn(firstChild);
+        when(parentElement.findElement(CHROME_LOCATOR)).thenReturn(secondChild);
+
+        Query parent = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+        Query first = parent.child(By.id("first"));
+        Query second = new Query().defaultLocator(By.id("second")).addSpecificLocator(BrowserType.GOOGLECHROME, CHROME_LOCATOR)
+                .within(parent).usingDriver(mockedWebDriver);
+
+        assertThat(first.find()).isEqualTo(firstChild);
+        assertThat(second.find()).isEqualTo(secondChild);
+        verify(mockedWebDriver, times(1)).findElement(DEFAULT_LOCATOR);
+    }
+
+    @Test
+    public void staleParentElementIsLocatedAgain() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        WebElement staleParent = mock(WebElement.class);
+        WebElement freshParent = mock(WebElement.class);
+        WebElement child = mock(WebElement.class);
+        when(mockedWebDriver.findElement(DEFAULT_LOCATOR)).thenReturn(staleParent, freshParent);
+        when(staleParent.findElement(FIREFOX_LOCATOR)).thenThrow(new StaleElementReferenceException("stale"));
+        when(freshParent.findElement(FIREFOX_LOCATOR)).thenReturn(child);
+
+        Query parent = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+
+        assertThat(parent.child(FIREFOX_LOCATOR).find()).isEqualTo(child);
+        verify(mockedWebDriver, times(2)).findElement(DEFAULT_LOCATOR);
+    }
+
+    @Test
+    public void scopedQueriesPassTheParentElementToScripts() {
+        RemoteWebDriver mockedWebDriver = mockedChromeDriver();
+        WebElement parentElement = mock(WebElement.class);
+        when(mockedWebDriver.findElement(DEFAULT_LOCATOR)).thenReturn(parentElement);
+        when(mockedWebDriver.executeScript(anyString(), eq("css"), eq("*[id=\"fire\"]"), any(WebElement.class), eq(-1), eq(0))).thenReturn(3L);
+
+        Query parent = new Query().defaultLocator(DEFAULT_LOCATOR).usingDriver(mockedWebDriver);
+
+        assertThat(parent.child(FIREFOX_LOCATOR).count()).isEqualTo(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void queryCannotBeScopedToItself() {
+        Query query = new Query().defaultLocator(DEFAULT_LOCATOR);
+        query.child(CHROME_LOCATOR);
+        query.within(query);
+    }
+
+    private List<WebElement> mockedElements(int count) {
+        List<WebElement> elements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            elements.add(mock(WebElement.class));
+        }
+        return elements;
+    }
+
+    private RemoteWebDriver mockedChromeDriver() {
+        Capabilities mockedCapabilities = mock(Capabilities.class);
+        when(mockedCapabilities.getBrowserName()).thenReturn(BrowserType.GOOGLECHROME);
+        when(mockedCapabilities.getCapability(PLATFORM_NAME)).thenReturn(Platform.YOSEMITE);
+
+        RemoteWebDriver mockedWebDriver = mock(RemoteWebDriver.class);
+        when(mockedWebDriver.getCapabilities()).thenReturn(mockedCapabilities);
+
+        return mockedWebDriver;
+    }
 }
@@ -0,0 +1,77 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.BrowserType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnapshotDriverTest {
+
+    private static final String HTML = "<html><head><title>Login</title></head><body>" +
+            "<form id='login'>" +
+            "<input name='username' class='field text'>" +
+            "<input name='password' class='field' type='password'>" +
+            "<input name='token' type='hidden' value='abc'>" +
+            "<button id='submit' disabled>Sign in</button>" +
+            "</form>" +
+            "<ul><li><a href='/help'>Need help?</a></li><li><a href='/reset'>Reset password</a></li></ul>" +
+            "</body></html>";
+
+    private final SnapshotDriver snapshot = SnapshotDriver.of(BrowserType.GOOGLECHROME, HTML);
+
+    @Test
+    public void everyStandardLocatorCanBeEvaluated() {
+        assertThat(snapshot.findElements(By.id("login"))).hasSize(1);
+        assertThat(snapshot.findElements(By.cssSelector("form input.field"))).hasSize(2);
+        assertThat(snapshot.findElements(By.xpath("//ul/li/a"))).hasSize(2);
+        assertThat(snapshot.findElements(By.name("password"))).hasSize(1);
+        assertThat(snapshot.findElements(By.className("text"))).hasSize(1);
+        assertThat(snapshot.findElements(By.tagName("input"))).hasSize(3);
+        assertThat(snapshot.findElements(By.linkText("Need help?"))).hasSize(1);
+        assertThat(snapshot.findElements(By.partialLinkText("password"))).hasSize(1);
+        assertThat(snapshot.getTitle()).isEqualTo("Login");
+    }
+
+    @Test
+    public void elementsCanBeSearchedAndRead() {
+        WebElement form = snapshot.findElement(By.id("login"));
+        WebElement button = form.findElement(By.xpath(".//button"));
+
+        assertThat(form.findElements(By.tagName("form"))).isEmpty();
+        assertThat(button.getText()).isEqualTo("Sign in");
+        assertThat(button.isEnabled()).isFalse();
+        assertThat(snapshot.findElement(By.name("token")).isDisplayed()).isFalse();
+        assertThat(snapshot.findElement(By.name("token")).getAttribute("value")).isEqualTo("abc");
+    }
+
+    @Test
+    public void queryCanUseASnapshotAsItsDriver() {
+        Query query = new Query().defaultLocator(By.xpath("//input"))
+                .addSpecificLocator(BrowserType.GOOGLECHROME, By.cssSelector("input.field"))
+                .usingDriver(snapshot);
+
+        List<WebElement> elements = query.findAll();
+
+        assertThat(query.by()).isEqualTo(By.cssSelector("input.field"));
+        assertThat(elements).hasSize(2);
+        assertThat(query.count()).isEqualTo(2);
+        assertThat(query.findFirst(1)).containsExactly(elements.get(0));
+        assertThat(query.child(By.cssSelector("*")).findAll()).isEmpty();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void missingElementsThrowNoSuchElementException() {
+        snapshot.findElement(By.id("missing"));
+    }
+
+    @Test(expected = InvalidSelectorException.class)
+    public void invalidSelectorsThrowInvalidSelectorException() {
+        snapshot.findElements(By.cssSelector("input["));
+    }
+}
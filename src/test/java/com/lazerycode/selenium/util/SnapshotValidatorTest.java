@@ -0,0 +1,68 @@
+package com.lazerycode.selenium.util;
+
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.remote.BrowserType;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnapshotValidatorTest {
+
+    private static final SnapshotDriver CHROME = SnapshotDriver.of(BrowserType.GOOGLECHROME,
+            "<div name='foo'></div><div name='bar'></div><div name='bar'></div><p id='first'></p><p class='component'></p>");
+    private static final SnapshotDriver FIREFOX = SnapshotDriver.of(BrowserType.FIREFOX,
+            "<div name='foo'></div><p id='second'></p>");
+
+    @Test
+    public void everyQueryIsCheckedAgainstEverySnapshot() {
+        List<SnapshotResult> results = new SnapshotValidator()
+                .addSnapshot(CHROME)
+                .addSnapshot(FIREFOX)
+                .addQuery("first", new Query().defaultLocator(By.id("first")))
+                .addQuery("foo", new Query().defaultLocator(By.name("foo")))
+                .validate();
+
+        assertThat(results).extracting(SnapshotResult::getName).containsExactly("first", "first", "foo", "foo");
+        assertThat(results).extracting(SnapshotResult::getStatus).containsExactly(
+                SnapshotResult.Status.MATCHED, SnapshotResult.Status.MISSING,
+                SnapshotResult.Status.MATCHED, SnapshotResult.Status.MATCHED);
+    }
+
+    @Test
+    public void queriesThatSwitchFramesAreReportedAsErrors() {
+        Query framed = new Query().defaultLocator(By.id("first")).inFrame(By.id("content"));
+        List<SnapshotResult> results = new SnapshotValidator()
+                .addSnapshot(CHROME)
+                .addQuery("framed", framed)
+                .addQuery("searched", new Query().defaultLocator(By.id("first")).searchFrames(true))
+                .addQuery("child", framed.child(By.id("second")))
+                .validate();
+
+        assertThat(results).extracting(SnapshotResult::getStatus).containsOnly(SnapshotResult.Status.ERROR);
+        assertThat(results).extracting(SnapshotResult::getFailure).allSatisfy(failure -> assertThat(failure)
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining("Frames are not supported in snapshots"));
+    }
+
+    @Test
+    public void pageObjectQueriesAreNamedAfterTheirFields() {
+        List<SnapshotResult> results = new SnapshotValidator()
+                .addSnapshot(CHROME)
+                .addSnapshot(FIREFOX)
+                .addPageObject(new SomeComposedPageObject())
+                .validate();
+
+        assertThat(results).extracting(SnapshotResult::toString).contains(
+                "AMBIGUOUS SomeComposedPageObject.anotherElement [googlechrome] By.name: bar matches=2",
+                "MATCHED SomeComposedPageObject.elementArray[0] [googlechrome] By.id: first matches=1",
+                "MISSING SomeComposedPageObject.elementList[1] [firefox] By.id: fourth matches=0",
+                "MATCHED SomeComposedPageObject.component.componentElement [googlechrome] By.className: component matches=1");
+        SnapshotResult noLocator = results.stream()
+                .filter(result -> result.getName().equals("SomeComposedPageObject.anotherElement") && result.getBrowserName().equals(BrowserType.FIREFOX))
+                .findFirst().get();
+        assertThat(noLocator.getStatus()).isEqualTo(SnapshotResult.Status.ERROR);
+        assertThat(noLocator.getFailure()).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,27 @@
+package com.lazerycode.selenium.util;
+
+import org.openqa.selenium.By;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class SomeComposedPageObject extends SomePageObject {
+
+    SomeQuery subclassedElement = new SomeQuery();
+    Query[] elementArray = {new Query().defaultLocator(By.id("first")), null, new Query().defaultLocator(By.id("second"))};
+    List<Query> elementList = Arrays.asList(new Query().defaultLocator(By.id("third")), new Query().defaultLocator(By.id("fourth")));
+    SomeComponent component = new SomeComponent(this);
+    String unrelated = "ignored";
+
+    static class SomeQuery extends Query {
+    }
+
+    static class SomeComponent {
+        final SomeComposedPageObject parent;
+        Query componentElement = new Query().defaultLocator(By.className("component"));
+
+        SomeComponent(SomeComposedPageObject parent) {
+            this.parent = parent;
+        }
+    }
+}